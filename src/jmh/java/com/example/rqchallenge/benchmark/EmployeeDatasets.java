@@ -0,0 +1,59 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic employee directories, so runs at the same size are comparable across commits.
+ */
+final class EmployeeDatasets {
+
+    private static final String[] FIRST = {"Ajay", "Arun", "Sonal", "Snehal", "Madhukar", "Narayan", "Prakash", "Sanjay",
+            "Radha", "Sarika", "Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen", "Sonya"};
+    private static final String[] LAST = {"Kumar", "Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+            "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little", "Greer"};
+
+    private EmployeeDatasets() {
+    }
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            employees.add(Employee.builder()
+                    .id(i)
+                    .employee_name(FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " " + Integer.toString(i, 36))
+                    .employee_salary(10_000 + random.nextInt(990_000))
+                    .employee_age(18 + random.nextInt(50))
+                    .profile_image("")
+                    .build());
+        }
+        return employees;
+    }
+
+    //same shape as the upstream /employees response, with every field as a string
+    static byte[] upstreamPayload(List<Employee> employees, ObjectMapper objectMapper) throws IOException {
+        List<Map<String, String>> data = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            Map<String, String> row = new LinkedHashMap<>();
+            row.put("id", String.valueOf(employee.getId()));
+            row.put("employee_name", employee.getEmployee_name());
+            row.put("employee_salary", String.valueOf(employee.getEmployee_salary()));
+            row.put("employee_age", String.valueOf(employee.getEmployee_age()));
+            row.put("profile_image", "");
+            data.add(row);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", "success");
+        payload.put("data", data);
+        payload.put("message", "Successfully! All records has been fetched.");
+        return objectMapper.writeValueAsBytes(payload);
+    }
+}
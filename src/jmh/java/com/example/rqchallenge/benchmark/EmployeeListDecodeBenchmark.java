@@ -0,0 +1,67 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.feignclient.EmployeeListDecoder;
+import com.example.rqchallenge.feignclient.EmployeeListReader;
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of the upstream {@code /employees} payload, data binding versus the streaming decoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeListDecodeBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final Request request = Request.create(Request.HttpMethod.GET, "/employees", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    private EmployeeListDecoder decoder;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = EmployeeDatasets.upstreamPayload(EmployeeDatasets.employees(size), objectMapper);
+        decoder = new EmployeeListDecoder((response, type) -> {
+            throw new UnsupportedOperationException();
+        }, new EmployeeListReader(objectMapper, new EmployeeCodec(), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public EmployeeList dataBinding() throws IOException {
+        return objectMapper.readValue(payload, EmployeeList.class);
+    }
+
+    @Benchmark
+    public Object streamingDecoder() throws IOException {
+        Response response = Response.builder().status(200).request(request).headers(Collections.emptyMap()).body(payload).build();
+        return decoder.decode(response, EmployeeList.class);
+    }
+}
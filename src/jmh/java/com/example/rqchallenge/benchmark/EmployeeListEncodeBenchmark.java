@@ -0,0 +1,57 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.codec.EmployeeJsonModule;
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering an employee list as JSON, bean serialisation versus {@link EmployeeCodec}. Run with {@code -prof gc}
+ * to compare allocation per list; the decoding side is {@link EmployeeListDecodeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeListEncodeBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final ObjectMapper dataBinding = new ObjectMapper();
+    private final ObjectMapper codec = new ObjectMapper().registerModule(new EmployeeJsonModule(new EmployeeCodec()));
+    private List<Employee> employees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employees = EmployeeDatasets.employees(size);
+    }
+
+    @Benchmark
+    public byte[] dataBinding() throws IOException {
+        return dataBinding.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] codec() throws IOException {
+        return codec.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.cache.EmployeeIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.exception.EmployeeNotFoundException;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.service.EmployeeAccessLog;
+import com.example.rqchallenge.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service hot paths next to the per-request stream implementations they replaced, over the same data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"Kumar", "jay Ni"})
+    public String searchString;
+
+    private List<Employee> employees;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws EmployeeNotFoundException {
+        employees = EmployeeDatasets.employees(size);
+        employeeService = new EmployeeService();
+        employeeService.employeeFeignClient = new StubEmployeeFeignClient(employees);
+        employeeService.employeeSnapshot = new EmployeeSnapshot(employeeService.employeeFeignClient, Long.MAX_VALUE / 2, 0);
+        employeeService.employeeIdCache = new EmployeeIdCache(10_000, 60_000, 5_000, new SimpleMeterRegistry());
+        employeeService.sharedTier = SharedTier.STANDALONE;
+        employeeService.employeeAccessLog = new EmployeeAccessLog(true, 4096, 1000);
+        employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByNameSearch() throws EmployeeNotFoundException {
+        return employeeService.getEmployeesByNameSearch(searchString);
+    }
+
+    @Benchmark
+    public List<Employee> linearNameSearch() {
+        return employees.stream().filter(e -> e.getEmployee_name().contains(searchString)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Integer getHighestSalaryOfEmployees() throws EmployeeNotFoundException {
+        return employeeService.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public int streamHighestSalary() {
+        return employees.stream().max(Comparator.comparingInt(Employee::getEmployee_salary)).orElseThrow().getEmployee_salary();
+    }
+
+    @Benchmark
+    public List<String> getTopTenHighestEarningEmployeeNames() throws EmployeeNotFoundException {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+
+    @Benchmark
+    public List<String> sortedTopTen() {
+        return employees.stream()
+                .sorted(Collections.reverseOrder(Comparator.comparingInt(Employee::getEmployee_salary)))
+                .map(Employee::getEmployee_name).limit(10).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public EmployeeDataset buildDataset() {
+        return new EmployeeDataset(1, 0, employees);
+    }
+}
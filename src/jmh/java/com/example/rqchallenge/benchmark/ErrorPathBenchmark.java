@@ -0,0 +1,93 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.controller.EmployeeControllerAdvice;
+import com.example.rqchallenge.controller.ErrorResponses;
+import com.example.rqchallenge.feignclient.UpstreamErrorDecoder;
+import com.example.rqchallenge.model.ResponseData;
+import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One upstream error status turned into the answer body, the way it used to be done (Feign's default exception with
+ * its stack trace and body in the message, classified by message scans, a fresh {@link ResponseData} serialised per
+ * request) versus {@link UpstreamErrorDecoder} and the {@link EmployeeControllerAdvice} handler requests go through. Run with {@code -prof gc} to compare
+ * allocation per error; JMH's call stack is shallow, so a request thread's deeper stack makes the old path dearer still.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final String METHOD_KEY = "EmployeeFeignClient#getEmployeeById(String)";
+
+    @Param({"404", "429", "500"})
+    public int status;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Request request = Request.create(Request.HttpMethod.GET, "/employee/1", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    private final byte[] body = "{\"status\":\"error\",\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    private final UpstreamErrorDecoder decoder = new UpstreamErrorDecoder();
+    private final EmployeeControllerAdvice advice = new EmployeeControllerAdvice();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        advice.meterRegistry = new SimpleMeterRegistry();
+        advice.errorResponses = new ErrorResponses(objectMapper);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> legacy() throws IOException {
+        FeignException e = FeignException.errorStatus(METHOD_KEY, response());
+        ResponseData data;
+        HttpStatus httpStatus;
+        if (e.getMessage().contains(Constants.STATUS_429)) {
+            data = new ResponseData(Constants.STATUS_429, Constants.MSG_429, null);
+            httpStatus = HttpStatus.TOO_MANY_REQUESTS;
+        } else if (e.getMessage().contains(Constants.STATUS_404)) {
+            data = new ResponseData(Constants.STATUS_404, Constants.MSG_404, null);
+            httpStatus = HttpStatus.NOT_FOUND;
+        } else if (e.getMessage().contains(Constants.STATUS_405)) {
+            data = new ResponseData(Constants.STATUS_405, Constants.MSG_405, null);
+            httpStatus = HttpStatus.METHOD_NOT_ALLOWED;
+        } else {
+            data = new ResponseData(Constants.STATUS_UNKNOWN, e.getMessage(), null);
+            httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        return new ResponseEntity<>(objectMapper.writeValueAsBytes(data), httpStatus);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> decoded() throws IOException {
+        return advice.handleUpstreamSystemError(decoder.decode(METHOD_KEY, response()));
+    }
+
+    private Response response() {
+        return Response.builder().status(status).request(request).headers(Collections.emptyMap()).body(body).build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.feignclient.EmployeeListDecoder;
+import com.example.rqchallenge.feignclient.EmployeeListReader;
+import com.example.rqchallenge.feignclient.OkHttpTransport;
+import com.example.rqchallenge.feignclient.UpstreamHttpProperties;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The real {@link EmployeeFeignClient} interface and decoder against a stub upstream on the loopback interface,
+ * over each {@link UpstreamHttpProperties.Transport}. {@link #getEmployeeByIdConcurrently()} samples latency from
+ * several threads at once, which is where the pooled transport should show in the p99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeignClientBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"OKHTTP", "URL_CONNECTION"})
+    public UpstreamHttpProperties.Transport transport;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private EmployeeFeignClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        List<Employee> employees = EmployeeDatasets.employees(size);
+        byte[] allEmployees = EmployeeDatasets.upstreamPayload(employees, objectMapper);
+        byte[] oneEmployee = objectMapper.writeValueAsBytes(employees.get(0));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.createContext("/employees", exchange -> {
+            byte[] body = exchange.getRequestURI().getPath().equals("/employees") ? allEmployees : oneEmployee;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        UpstreamHttpProperties properties = new UpstreamHttpProperties();
+        properties.setTransport(transport);
+        Client httpClient = transport == UpstreamHttpProperties.Transport.OKHTTP
+                ? new feign.okhttp.OkHttpClient(OkHttpTransport.create(properties, new SimpleMeterRegistry()))
+                : new Client.Default(null, null);
+        client = Feign.builder()
+                .client(httpClient)
+                .options(properties.defaultOptions())
+                .contract(new SpringMvcContract())
+                .decoder(new EmployeeListDecoder((response, type) -> objectMapper.readValue(response.body().asInputStream(), objectMapper.constructType(type)),
+                        new EmployeeListReader(objectMapper, new EmployeeCodec(), new SimpleMeterRegistry())))
+                .retryer(Retryer.NEVER_RETRY)
+                .target(EmployeeFeignClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public EmployeeList getAllEmployees() {
+        return client.getAllEmployees();
+    }
+
+    @Benchmark
+    public Employee getEmployeeById() {
+        return client.getEmployeeById("1");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Threads(8)
+    public Employee getEmployeeByIdConcurrently() {
+        return client.getEmployeeById("1");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeInput;
+import com.example.rqchallenge.model.EmployeeList;
+import com.example.rqchallenge.model.EmployeeResponse;
+import com.example.rqchallenge.model.ResponseData;
+import feign.Response;
+
+import java.util.List;
+
+/**
+ * In-memory upstream so service benchmarks measure our own work, not the network.
+ */
+class StubEmployeeFeignClient implements EmployeeFeignClient {
+
+    private final EmployeeList employeeList = new EmployeeList();
+
+    StubEmployeeFeignClient(List<Employee> employees) {
+        employeeList.setData(employees);
+    }
+
+    @Override
+    public EmployeeList getAllEmployees() {
+        return employeeList;
+    }
+
+    @Override
+    public Response getAllEmployeesResponse(String ifNoneMatch, String ifModifiedSince) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Employee getEmployeeById(String id) {
+        int index = Integer.parseInt(id) - 1;
+        return index >= 0 && index < employeeList.getData().size() ? employeeList.getData().get(index) : null;
+    }
+
+    @Override
+    public EmployeeResponse createEmployee(EmployeeInput employeeInput) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResponseData deleteEmployeeById(String id) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rqchallenge.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * The {@code IEmployeeController} endpoints a run can mix, each building a request against a directory of the
+ * simulated size. Names are the controller method names, which is how they are weighted and reported.
+ */
+enum Endpoint {
+
+    getAllEmployees {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base);
+        }
+    },
+    getEmployeeById {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base + "/" + (1 + random.nextInt(size)));
+        }
+    },
+    getEmployeesByNameSearch {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            String[] names = UpstreamSimulator.firstNames();
+            return get(base + "/search/" + names[random.nextInt(names.length)].substring(0, 3) + "?ignoreCase=true&size=20");
+        }
+    },
+    queryEmployees {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base + "/query?sort=salary&order=desc&minAge=" + (18 + random.nextInt(40)) + "&limit=20");
+        }
+    },
+    getHighestSalaryOfEmployees {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base + "/highestSalary");
+        }
+    },
+    getTopTenHighestEarningEmployeeNames {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base + "/topTenHighestEarningEmployeeNames");
+        }
+    },
+    getSalaryPercentiles {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return get(base + "/salaryPercentiles");
+        }
+    },
+    createEmployee {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            String body = "{\"name\":\"Load Test\",\"salary\":\"" + (10_000 + random.nextInt(990_000)) + "\",\"age\":\"" + (18 + random.nextInt(50)) + "\"}";
+            return builder(base).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    },
+    deleteEmployeeById {
+        @Override
+        HttpRequest request(String base, int size, Random random) {
+            return builder(base + "/" + (1 + random.nextInt(size))).DELETE().build();
+        }
+    };
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    abstract HttpRequest request(String base, int size, Random random);
+
+    private static HttpRequest get(String uri) {
+        return builder(uri).GET().build();
+    }
+
+    private static HttpRequest.Builder builder(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT).header("Accept", "application/json");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Every latency of one endpoint, kept exactly since a run records at most a few million, plus counts by status.
+ * Status 0 counts requests that got no response at all.
+ */
+class LatencyRecorder {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    synchronized void record(int status, long latencyNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        long ok = statuses.entrySet().stream().filter(e -> e.getKey() >= 200 && e.getKey() < 400).mapToLong(Map.Entry::getValue).sum();
+        return new Summary(count, ok, count / seconds, millis(sorted, 50), millis(sorted, 99), millis(sorted, 99.9),
+                count == 0 ? 0 : sorted[count - 1] / 1e6, new TreeMap<>(statuses));
+    }
+
+    //nearest rank
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.max(1, Math.ceil(percentile / 100 * sorted.length));
+        return sorted[rank - 1] / 1e6;
+    }
+
+    static final class Summary {
+        public final long requests;
+        public final long ok;
+        public final double throughput;
+        public final double p50Millis;
+        public final double p99Millis;
+        public final double p999Millis;
+        public final double maxMillis;
+        public final Map<Integer, Long> statuses;
+
+        Summary(long requests, long ok, double throughput, double p50Millis, double p99Millis, double p999Millis,
+                double maxMillis, Map<Integer, Long> statuses) {
+            this.requests = requests;
+            this.ok = ok;
+            this.throughput = throughput;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.p999Millis = p999Millis;
+            this.maxMillis = maxMillis;
+            this.statuses = statuses;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts an {@link UpstreamSimulator} and the application pointed at it on the loopback interface, drives the real
+ * endpoints at a fixed rate with a weighted mix, and reports throughput and p50/p99/p999 latency per endpoint.
+ * <p>
+ * Requests are sent on a fixed schedule whether or not earlier ones have returned, and latency is measured from
+ * when a request was due rather than when it was sent, so a stalled server shows in the percentiles instead of
+ * quietly lowering the offered load. Options are {@code key=value} arguments, see {@link Options}; any
+ * {@code app.<property>=value} is passed to the application, e.g. {@code app.employee.snapshot.ttl-ms=5000}.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        try (UpstreamSimulator upstream = new UpstreamSimulator(options.size, options.latencyMs, options.jitterMs,
+                options.upstreamRps, options.retryAfterSeconds, options.keepWrites, options.upstreamThreads);
+             ConfigurableApplicationContext app = start(options, upstream.url())) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            System.out.printf("Driving %d req/s for %ds after %ds warm-up against %d employees, upstream %dms+%dms, %s%n",
+                    options.qps, options.durationSeconds, options.warmupSeconds, options.size, options.latencyMs, options.jitterMs,
+                    options.upstreamRps > 0 ? "limited to " + options.upstreamRps + " req/s" : "unlimited");
+            Map<Endpoint, LatencyRecorder> recorders = drive(options, "http://127.0.0.1:" + port + Constants.URL_BASE);
+            report(options, recorders, upstream);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Options options, String upstreamUrl) {
+        //command-line arguments outrank application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--employee.api.url=" + upstreamUrl,
+                "--employee.snapshot.persistence.enabled=false",
+                "--employee.shared.enabled=false",
+                "--logging.level.com.example.rqchallenge=WARN",
+                "--spring.main.banner-mode=off"));
+        options.appProperties.forEach((key, value) -> arguments.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(RqChallengeApplication.class).run(arguments.toArray(new String[0]));
+    }
+
+    private static Map<Endpoint, LatencyRecorder> drive(Options options, String base) throws InterruptedException {
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        options.mix.keySet().forEach(endpoint -> recorders.put(endpoint, new LatencyRecorder()));
+        Endpoint[] wheel = wheel(options.mix);
+        ExecutorService responses = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(responses)
+                .build();
+        Random random = new Random(7);
+        AtomicInteger inFlight = new AtomicInteger();
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / options.qps;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        for (long i = 0; ; i++) {
+            long due = start + i * periodNanos;
+            if (due >= end) {
+                break;
+            }
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            LatencyRecorder recorder = due >= measureFrom ? recorders.get(endpoint) : null;
+            inFlight.incrementAndGet();
+            client.sendAsync(endpoint.request(base, options.size, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (recorder != null) {
+                            recorder.record(error == null ? response.statusCode() : 0, System.nanoTime() - due);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        responses.shutdownNow();
+        return recorders;
+    }
+
+    //each endpoint repeated by its weight, so one random index picks by weight
+    private static Endpoint[] wheel(Map<Endpoint, Integer> mix) {
+        List<Endpoint> wheel = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(endpoint);
+            }
+        });
+        return wheel.toArray(new Endpoint[0]);
+    }
+
+    private static void report(Options options, Map<Endpoint, LatencyRecorder> recorders, UpstreamSimulator upstream) throws IOException {
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> summaries.put(endpoint.name(), recorder.summarize(options.durationSeconds)));
+
+        System.out.printf("%n%-38s %9s %9s %9s %10s %10s %10s %10s  %s%n",
+                "endpoint", "requests", "ok", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        summaries.forEach((endpoint, s) -> System.out.printf("%-38s %9d %9d %9.1f %10.2f %10.2f %10.2f %10.2f  %s%n",
+                endpoint, s.requests, s.ok, s.throughput, s.p50Millis, s.p99Millis, s.p999Millis, s.maxMillis, s.statuses));
+        System.out.printf("%nupstream requests %s, answered 429 = %d%n", upstream.requestCounts(), upstream.rateLimitedCount());
+
+        if (options.report != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("options", options);
+            report.put("endpoints", summaries);
+            report.put("upstream", Map.of("requests", upstream.requestCounts(), "rateLimited", upstream.rateLimitedCount()));
+            File file = new File(options.report);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Report written to " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Run options with their defaults; the default mix is read heavy with a trickle of writes.
+     */
+    static final class Options {
+        public int qps = 200;
+        public int durationSeconds = 30;
+        public int warmupSeconds = 10;
+        public int size = 10_000;
+        public long latencyMs = 50;
+        public long jitterMs = 50;
+        public int upstreamRps = 20;
+        public int retryAfterSeconds = 0;
+        public boolean keepWrites = false;
+        public int upstreamThreads = 64;
+        public String report;
+        public Map<Endpoint, Integer> mix = defaultMix();
+        public Map<String, String> appProperties = new LinkedHashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Expected key=value but got " + arg);
+                }
+                String key = arg.substring(0, separator);
+                String value = arg.substring(separator + 1);
+                if (key.startsWith("app.")) {
+                    options.appProperties.put(key.substring(4), value);
+                    continue;
+                }
+                switch (key) {
+                    case "qps": options.qps = Integer.parseInt(value); break;
+                    case "duration": options.durationSeconds = Integer.parseInt(value); break;
+                    case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "size": options.size = Integer.parseInt(value); break;
+                    case "latencyMs": options.latencyMs = Long.parseLong(value); break;
+                    case "jitterMs": options.jitterMs = Long.parseLong(value); break;
+                    case "upstreamRps": options.upstreamRps = Integer.parseInt(value); break;
+                    case "retryAfter": options.retryAfterSeconds = Integer.parseInt(value); break;
+                    case "keepWrites": options.keepWrites = Boolean.parseBoolean(value); break;
+                    case "upstreamThreads": options.upstreamThreads = Integer.parseInt(value); break;
+                    case "report": options.report = value; break;
+                    case "mix": options.mix = parseMix(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + key);
+                }
+            }
+            if (options.qps <= 0 || options.durationSeconds <= 0 || options.size <= 0 || options.mix.isEmpty()) {
+                throw new IllegalArgumentException("qps, duration, size and the mix must be positive");
+            }
+            return options;
+        }
+
+        //e.g. getEmployeeById=8,getAllEmployees=1
+        private static Map<Endpoint, Integer> parseMix(String value) {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":|=");
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight > 0) {
+                    mix.put(Endpoint.valueOf(parts[0].trim()), weight);
+                }
+            }
+            return mix;
+        }
+
+        private static Map<Endpoint, Integer> defaultMix() {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            mix.put(Endpoint.getAllEmployees, 2);
+            mix.put(Endpoint.getEmployeeById, 8);
+            mix.put(Endpoint.getEmployeesByNameSearch, 4);
+            mix.put(Endpoint.queryEmployees, 2);
+            mix.put(Endpoint.getHighestSalaryOfEmployees, 2);
+            mix.put(Endpoint.getTopTenHighestEarningEmployeeNames, 2);
+            mix.put(Endpoint.getSalaryPercentiles, 1);
+            mix.put(Endpoint.createEmployee, 1);
+            mix.put(Endpoint.deleteEmployeeById, 1);
+            return mix;
+        }
+    }
+}
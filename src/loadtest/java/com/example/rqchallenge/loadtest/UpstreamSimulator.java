@@ -0,0 +1,252 @@
+package com.example.rqchallenge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the dummy employee API on the loopback interface: the same paths and payload shapes,
+ * a deterministic directory of a given size, a latency of base plus uniform jitter per request, and a fixed-window
+ * rate limit answered with 429 the way the real API throttles. Like the real API it does not keep writes unless
+ * told to.
+ */
+public class UpstreamSimulator implements AutoCloseable {
+
+    private static final String[] FIRST = {"Ajay", "Arun", "Sonal", "Snehal", "Madhukar", "Narayan", "Prakash", "Sanjay",
+            "Radha", "Sarika", "Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen", "Sonya"};
+    private static final String[] LAST = {"Kumar", "Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+            "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little", "Greer"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final int requestsPerSecond;
+    private final int retryAfterSeconds;
+    private final boolean keepWrites;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final LongAdder rateLimited = new LongAdder();
+    //the directory by id in upstream order, guarded by this
+    private final Map<String, Map<String, String>> employees = new LinkedHashMap<>();
+    private byte[] allEmployees;
+    private int nextId;
+    private long windowStartMillis;
+    private int windowCount;
+
+    /**
+     * @param requestsPerSecond allowed per one-second window, 0 for no limit
+     * @param retryAfterSeconds sent with every 429, 0 to send none like the real API
+     */
+    public UpstreamSimulator(int size, long latencyMillis, long jitterMillis, int requestsPerSecond, int retryAfterSeconds,
+                             boolean keepWrites, int threads) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.requestsPerSecond = requestsPerSecond;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.keepWrites = keepWrites;
+        Random random = new Random(42);
+        for (int id = 1; id <= size; id++) {
+            add(employee(id, FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)],
+                    10_000 + random.nextInt(990_000), 18 + random.nextInt(50)));
+        }
+        nextId = size + 1;
+        allEmployees = renderAll();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * First names of the directory, for search terms that hit.
+     */
+    public static String[] firstNames() {
+        return FIRST.clone();
+    }
+
+    public Map<String, Long> requestCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        requests.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String route = route(method, path);
+            requests.computeIfAbsent(route, key -> new LongAdder()).increment();
+            sleep();
+            if (!admit()) {
+                rateLimited.increment();
+                if (retryAfterSeconds > 0) {
+                    exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+                }
+                send(exchange, 429, "{\"message\":\"Too Many Attempts.\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            switch (route) {
+                case "GET /employees":
+                    send(exchange, 200, all());
+                    break;
+                case "GET /employees/{id}":
+                    Map<String, String> employee = find(lastSegment(path));
+                    send(exchange, employee != null ? 200 : 404, employee != null ? objectMapper.writeValueAsBytes(employee) : new byte[0]);
+                    break;
+                case "POST /create":
+                    send(exchange, 200, create(exchange.getRequestBody().readAllBytes()));
+                    break;
+                case "DELETE /delete/{id}":
+                    send(exchange, 200, delete(lastSegment(path)));
+                    break;
+                default:
+                    send(exchange, 404, new byte[0]);
+            }
+        }
+    }
+
+    private static String route(String method, String path) {
+        if (path.equals("/employees")) {
+            return method + " /employees";
+        }
+        if (path.startsWith("/employees/")) {
+            return method + " /employees/{id}";
+        }
+        if (path.startsWith("/delete/")) {
+            return method + " /delete/{id}";
+        }
+        return method + " " + path;
+    }
+
+    private synchronized boolean admit() {
+        if (requestsPerSecond <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - windowStartMillis >= 1000) {
+            windowStartMillis = now;
+            windowCount = 0;
+        }
+        return ++windowCount <= requestsPerSecond;
+    }
+
+    private void sleep() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized byte[] all() {
+        return allEmployees;
+    }
+
+    private synchronized Map<String, String> find(String id) {
+        return employees.get(id);
+    }
+
+    private void add(Map<String, String> employee) {
+        employees.put(employee.get("id"), employee);
+    }
+
+    private synchronized byte[] create(byte[] body) throws IOException {
+        Map<?, ?> input = objectMapper.readValue(body, Map.class);
+        int id = nextId++;
+        if (keepWrites) {
+            add(employee(id, String.valueOf(input.get("name")), Integer.parseInt(String.valueOf(input.get("salary"))),
+                    Integer.parseInt(String.valueOf(input.get("age")))));
+            allEmployees = renderAll();
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", input.get("name"));
+        data.put("salary", input.get("salary"));
+        data.put("age", input.get("age"));
+        data.put("id", String.valueOf(id));
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("data", data);
+        response.put("message", "Successfully! Record has been added.");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private synchronized byte[] delete(String id) throws IOException {
+        if (keepWrites && employees.remove(id) != null) {
+            allEmployees = renderAll();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("data", id);
+        response.put("message", "Successfully! Record has been deleted");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    //the real API sends every field as a string
+    private static Map<String, String> employee(int id, String name, int salary, int age) {
+        Map<String, String> employee = new LinkedHashMap<>();
+        employee.put("id", String.valueOf(id));
+        employee.put("employee_name", name);
+        employee.put("employee_salary", String.valueOf(salary));
+        employee.put("employee_age", String.valueOf(age));
+        employee.put("profile_image", "");
+        return employee;
+    }
+
+    private byte[] renderAll() throws IOException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", "success");
+        payload.put("data", new ArrayList<>(employees.values()));
+        payload.put("message", "Successfully! All records has been fetched.");
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    private static String lastSegment(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.index.EmployeeQueryIndex;
+import com.example.rqchallenge.index.NameIndex;
+import com.example.rqchallenge.index.SalaryIndex;
+import com.example.rqchallenge.model.Employee;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable view of the employee directory as fetched from upstream at a point in time.
+ * A new instance is swapped in by {@link EmployeeSnapshot} on every successful refresh or local change.
+ * The data lives in {@link EmployeeColumns}; {@link Employee} objects are created only for what a caller reads.
+ */
+@Getter
+public class EmployeeDataset {
+
+    //above this many ids a changed upstream list rebuilds the indexes rather than updating them one row at a time
+    private static final int INCREMENTAL_LIMIT = 32;
+
+    private final long version;
+    private final long fetchedAtMillis;
+    private final EmployeeColumns columns;
+    private final SalaryIndex salaryIndex;
+    private final NameIndex nameIndex;
+    //live and removed rows ordered by id, removed ones are skipped on lookup
+    @Getter(AccessLevel.NONE)
+    private final int[] byId;
+    @Getter(AccessLevel.NONE)
+    private volatile EmployeeQueryIndex queryIndex;
+    //searches answered ahead of requests for this name index, see precomputeSearches
+    @Getter(AccessLevel.NONE)
+    private volatile Map<SearchTerm, List<Employee>> precomputedSearches = Map.of();
+
+    public EmployeeDataset(long version, long fetchedAtMillis, List<Employee> employees) {
+        this(version, fetchedAtMillis, EmployeeColumns.of(employees));
+    }
+
+    public EmployeeDataset(long version, long fetchedAtMillis, EmployeeColumns columns) {
+        this(version, fetchedAtMillis, columns, SalaryIndex.of(columns), NameIndex.of(columns), sortedById(columns));
+    }
+
+    private EmployeeDataset(long version, long fetchedAtMillis, EmployeeColumns columns,
+                            SalaryIndex salaryIndex, NameIndex nameIndex, int[] byId) {
+        this.version = version;
+        this.fetchedAtMillis = fetchedAtMillis;
+        this.columns = columns;
+        this.salaryIndex = salaryIndex;
+        this.nameIndex = nameIndex;
+        this.byId = byId;
+    }
+
+    /**
+     * Employees in upstream order, created as the list is read.
+     */
+    public List<Employee> getEmployees() {
+        return columns.liveView();
+    }
+
+    public int size() {
+        return columns.liveCount();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    //built on first query rather than per version; once built, single creates and deletes update it in place
+    public EmployeeQueryIndex getQueryIndex() {
+        EmployeeQueryIndex index = queryIndex;
+        if (index == null) {
+            index = EmployeeQueryIndex.of(columns);
+            queryIndex = index;
+        }
+        return index;
+    }
+
+    public List<Employee> search(SearchTerm term) {
+        List<Employee> precomputed = precomputedSearches.get(term);
+        return precomputed != null ? precomputed : nameIndex.search(term.getQuery(), term.isIgnoreCase(), term.isPrefix());
+    }
+
+    /**
+     * Answers the searches now, so requests for them skip the name index scan; replaces the previously precomputed set.
+     */
+    public void precomputeSearches(Collection<SearchTerm> terms) {
+        Map<SearchTerm, List<Employee>> results = new HashMap<>();
+        for (SearchTerm term : terms) {
+            results.put(term, nameIndex.search(term.getQuery(), term.isIgnoreCase(), term.isPrefix()));
+        }
+        precomputedSearches = results;
+    }
+
+    public Optional<Employee> findById(int id) {
+        for (int i = lowerBound(byId, id); i < byId.length && columns.id(byId[i]) == id; i++) {
+            if (!columns.isRemoved(byId[i])) {
+                return Optional.of(columns.employee(byId[i]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public EmployeeDataset withAdded(long newVersion, Employee employee) {
+        EmployeeColumns updated = columns.withAdded(employee);
+        int row = updated.size() - 1;
+        int insertAt = lowerBound(byId, employee.getId() + 1L);
+        int[] newById = new int[byId.length + 1];
+        System.arraycopy(byId, 0, newById, 0, insertAt);
+        newById[insertAt] = row;
+        System.arraycopy(byId, insertAt, newById, insertAt + 1, byId.length - insertAt);
+        EmployeeDataset dataset = new EmployeeDataset(newVersion, fetchedAtMillis, updated, salaryIndex.withAdded(updated), nameIndex.withAdded(updated), newById);
+        EmployeeQueryIndex index = queryIndex;
+        dataset.queryIndex = index != null ? index.withAdded(updated) : null;
+        return dataset;
+    }
+
+    public EmployeeDataset withRemoved(long newVersion, int id) {
+        EmployeeColumns updated = columns.withRemoved(id);
+        if (updated == columns) {
+            return this;
+        }
+        EmployeeDataset dataset = new EmployeeDataset(newVersion, fetchedAtMillis, updated, salaryIndex.withRemoved(updated), nameIndex.withRemoved(updated), byId);
+        EmployeeQueryIndex index = queryIndex;
+        dataset.queryIndex = index != null ? index.withRemoved(updated) : null;
+        return dataset;
+    }
+
+    //bulk changes rebuild the indexes once instead of copying them per employee
+    public EmployeeDataset withAdded(long newVersion, Collection<Employee> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        return new EmployeeDataset(newVersion, fetchedAtMillis, columns.withAdded(added).compacted());
+    }
+
+    public EmployeeDataset withRemoved(long newVersion, Set<Integer> ids) {
+        EmployeeColumns updated = columns.withRemoved(ids);
+        if (updated == columns) {
+            return this;
+        }
+        return new EmployeeDataset(newVersion, fetchedAtMillis, updated.compacted());
+    }
+
+    /**
+     * This dataset as confirmed by an upstream fetch that found nothing new.
+     */
+    public EmployeeDataset renewed(long newFetchedAtMillis) {
+        EmployeeDataset renewed = new EmployeeDataset(version, newFetchedAtMillis, columns, salaryIndex, nameIndex, byId);
+        renewed.queryIndex = queryIndex;
+        renewed.precomputedSearches = precomputedSearches;
+        return renewed;
+    }
+
+    /**
+     * The dataset for a newer upstream list, given its diff against this one. When the list is this one with some
+     * ids dropped and new ones appended, which is what upstream creates and deletes produce, the indexes are updated
+     * in place; anything else is rebuilt from the list, since rows follow the upstream order.
+     */
+    public EmployeeDataset withUpstream(long newVersion, long newFetchedAtMillis, EmployeeColumns fresh, EmployeeDatasetDiff diff) {
+        int survivors = diff.size() <= INCREMENTAL_LIMIT && diff.getChanged().length == 0 ? appendOnlyPrefix(fresh, removedIds(diff)) : -1;
+        if (survivors < 0) {
+            return new EmployeeDataset(newVersion, newFetchedAtMillis, fresh);
+        }
+        EmployeeDataset dataset = this;
+        for (int id : diff.getRemoved()) {
+            dataset = dataset.withRemoved(newVersion, id);
+        }
+        for (int row = survivors; row < fresh.size(); row++) {
+            dataset = dataset.withAdded(newVersion, fresh.employee(row));
+        }
+        EmployeeDataset updated = new EmployeeDataset(newVersion, newFetchedAtMillis, dataset.columns, dataset.salaryIndex, dataset.nameIndex, dataset.byId);
+        updated.queryIndex = dataset.queryIndex;
+        return updated;
+    }
+
+    /**
+     * Whether the list holds exactly this dataset's employees in the same order.
+     */
+    public boolean sameAs(EmployeeColumns fresh) {
+        return size() == fresh.size() && appendOnlyPrefix(fresh, Set.of()) == fresh.size();
+    }
+
+    private static Set<Integer> removedIds(EmployeeDatasetDiff diff) {
+        Set<Integer> removed = new HashSet<>();
+        for (int id : diff.getRemoved()) {
+            removed.add(id);
+        }
+        return removed;
+    }
+
+    //how many leading fresh rows are exactly this dataset's live rows minus the removed ids, or -1 if they are not
+    private int appendOnlyPrefix(EmployeeColumns fresh, Set<Integer> removed) {
+        int freshRow = 0;
+        for (int row : columns.livePositions()) {
+            if (removed.contains(columns.id(row))) {
+                continue;
+            }
+            if (freshRow >= fresh.size() || !columns.sameEmployee(row, fresh, freshRow)) {
+                return -1;
+            }
+            freshRow++;
+        }
+        return freshRow;
+    }
+
+    int[] rowsById() {
+        return byId;
+    }
+
+    private int lowerBound(int[] rows, long id) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.id(rows[mid]) < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static int[] sortedById(EmployeeColumns columns) {
+        long[] keys = new long[columns.size()];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = ((long) columns.id(row) << 32) | row;
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+}
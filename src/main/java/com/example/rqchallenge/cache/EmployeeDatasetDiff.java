@@ -0,0 +1,78 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import lombok.Getter;
+
+import java.util.stream.IntStream;
+
+/**
+ * Ids that differ between a dataset and a newer upstream list: added, removed, or in both with different fields.
+ * Computed with one merge over both sides ordered by id, comparing rows column by column.
+ */
+@Getter
+public class EmployeeDatasetDiff {
+
+    private final int[] added;
+    private final int[] removed;
+    private final int[] changed;
+
+    private EmployeeDatasetDiff(int[] added, int[] removed, int[] changed) {
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    public static EmployeeDatasetDiff between(EmployeeDataset dataset, EmployeeColumns fresh) {
+        EmployeeColumns columns = dataset.getColumns();
+        int[] oldRows = dataset.rowsById();
+        int[] freshRows = EmployeeDataset.sortedById(fresh);
+        IntStream.Builder added = IntStream.builder();
+        IntStream.Builder removed = IntStream.builder();
+        IntStream.Builder changed = IntStream.builder();
+        int i = 0;
+        int j = 0;
+        while (i < oldRows.length || j < freshRows.length) {
+            long oldId = i < oldRows.length ? columns.id(oldRows[i]) : Long.MAX_VALUE;
+            long freshId = j < freshRows.length ? fresh.id(freshRows[j]) : Long.MAX_VALUE;
+            int id = (int) Math.min(oldId, freshId);
+            //rows sharing an id are paired up in row order
+            int live = 0;
+            boolean differs = false;
+            for (; i < oldRows.length && columns.id(oldRows[i]) == id; i++) {
+                if (!columns.isRemoved(oldRows[i])) {
+                    int pair = j + live;
+                    differs |= pair >= freshRows.length || fresh.id(freshRows[pair]) != id
+                            || !columns.sameEmployee(oldRows[i], fresh, freshRows[pair]);
+                    live++;
+                }
+            }
+            int freshCount = 0;
+            for (; j < freshRows.length && fresh.id(freshRows[j]) == id; j++) {
+                freshCount++;
+            }
+            if (live == 0 && freshCount > 0) {
+                added.add(id);
+            } else if (live > 0 && freshCount == 0) {
+                removed.add(id);
+            } else if (live > 0 && (differs || live != freshCount)) {
+                changed.add(id);
+            }
+        }
+        return new EmployeeDatasetDiff(added.build().toArray(), removed.build().toArray(), changed.build().toArray());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return added.length + removed.length + changed.length;
+    }
+
+    /**
+     * Every id in the diff, whatever the kind of change.
+     */
+    public IntStream ids() {
+        return IntStream.concat(IntStream.concat(IntStream.of(added), IntStream.of(removed)), IntStream.of(changed));
+    }
+}
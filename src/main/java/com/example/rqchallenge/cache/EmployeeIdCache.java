@@ -0,0 +1,125 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.model.Employee;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded W-TinyLFU cache of single employee lookups keyed by id.
+ * An empty value records that the upstream had no such employee and expires sooner than a found one.
+ * Entries are futures, so a miss only holds the map lock to insert one and the load runs outside it.
+ */
+@Component
+public class EmployeeIdCache {
+
+    private final AsyncCache<String, Optional<Employee>> loads;
+    private final Cache<String, Optional<Employee>> cache;
+
+    public EmployeeIdCache(@Value("${employee.cache.by-id.max-size:10000}") long maxSize,
+                           @Value("${employee.cache.by-id.ttl-ms:60000}") long ttlMillis,
+                           @Value("${employee.cache.by-id.negative-ttl-ms:5000}") long negativeTtlMillis,
+                           MeterRegistry meterRegistry) {
+        this.loads = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new FoundOrMissingExpiry(TimeUnit.MILLISECONDS.toNanos(ttlMillis), TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis)))
+                .recordStats()
+                .buildAsync();
+        this.cache = loads.synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "employeeById");
+    }
+
+    /**
+     * Concurrent misses for the same id share one call to the loader, made on the first caller's thread; a loader
+     * exception is propagated and not cached. An id invalidated while its load runs does not cache the result.
+     */
+    public Optional<Employee> get(String id, Function<String, Optional<Employee>> loader) {
+        CompletableFuture<Optional<Employee>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> entry = loads.get(id, (key, executor) -> mine);
+        if (entry == mine) {
+            try {
+                mine.complete(loader.apply(id));
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+            }
+        }
+        return await(entry);
+    }
+
+    public void put(Employee employee) {
+        cache.put(String.valueOf(employee.getId()), Optional.of(employee));
+    }
+
+    public void put(String id, Optional<Employee> employee) {
+        cache.put(id, employee);
+    }
+
+    /**
+     * Whether the id has no entry or one that expires within the given time; does not count as a hit or miss.
+     */
+    public boolean expiresWithin(String id, long millis) {
+        return cache.policy().expireVariably()
+                .map(expiry -> expiry.getExpiresAfter(id, TimeUnit.MILLISECONDS))
+                .map(remaining -> remaining.isEmpty() || remaining.getAsLong() < millis)
+                .orElse(true);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Optional<Employee> await(CompletableFuture<Optional<Employee>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class FoundOrMissingExpiry implements Expiry<String, Optional<Employee>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        FoundOrMissingExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String id, Optional<Employee> employee, long currentTime) {
+            return employee.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Optional<Employee> employee, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, employee, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Optional<Employee> employee, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
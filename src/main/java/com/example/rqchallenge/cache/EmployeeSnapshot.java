@@ -0,0 +1,374 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.config.AsyncConfig;
+import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.feignclient.EmployeeListFetcher;
+import com.example.rqchallenge.feignclient.SingleFlight;
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Holds the latest employee directory in memory so read endpoints do not hit the upstream per request.
+ * The snapshot is refreshed in the background. A read past the TTL but within the grace window is answered with the
+ * stale copy at once and starts a refresh on the refresh executor, so a slow or failing upstream never holds up a reader.
+ * Only with nothing servable left does a read wait, and then all such readers share one refresh.
+ * A refresh that finds the upstream list unchanged keeps the current dataset and its indexes, only renewing its age;
+ * otherwise listeners are told which ids changed.
+ * With a {@link SharedTier} only the leader refreshes from the upstream and publishes what it got; the other
+ * replicas refresh by adopting that publication, through the same unchanged-or-diff path.
+ * Successful local creates and deletes are applied to the dataset straight away and kept as {@link LocalWrites},
+ * which are laid over every later list until the upstream reflects them, so a write is readable here at once
+ * and a refresh can't undo it.
+ */
+@Component
+@Slf4j
+public class EmployeeSnapshot {
+
+    static final long DEFAULT_LOCAL_WRITE_RETENTION_MILLIS = 600000;
+    private static final String REFRESH = "refresh";
+
+    private final EmployeeListFetcher employeeListFetcher;
+    private final SharedTier sharedTier;
+    private final long ttlMillis;
+    private final long staleGraceMillis;
+    private final Clock clock;
+    private final AtomicReference<EmployeeDataset> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    //one refresh at a time, whether scheduled, in the background or awaited by readers
+    private final SingleFlight refreshes = new SingleFlight();
+    private final TaskExecutor refreshExecutor;
+    private final AtomicBoolean backgroundRefresh = new AtomicBoolean();
+    //held only to apply a local write or swap in a refreshed list, never while the upstream is called
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LocalWrites localWrites;
+    private final List<Consumer<EmployeeDatasetDiff>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<EmployeeDataset>> refreshListeners = new CopyOnWriteArrayList<>();
+    //the leader's publication the current dataset was last adopted from, null until one is
+    private volatile String adoptedPublication;
+    //the last list as the upstream or the leader sent it, before local writes were laid over it
+    private volatile EmployeeColumns lastUpstream;
+
+    @Autowired
+    public EmployeeSnapshot(EmployeeListFetcher employeeListFetcher, SharedTier sharedTier,
+                            @Value("${employee.snapshot.ttl-ms:60000}") long ttlMillis,
+                            @Value("${employee.snapshot.stale-grace-ms:600000}") long staleGraceMillis,
+                            @Value("${employee.snapshot.local-write-retention-ms:600000}") long localWriteRetentionMillis,
+                            @Qualifier(AsyncConfig.REFRESH_EXECUTOR) TaskExecutor refreshExecutor) {
+        this(employeeListFetcher, sharedTier, ttlMillis, staleGraceMillis, localWriteRetentionMillis, refreshExecutor, Clock.systemUTC());
+    }
+
+    //refreshes run on the calling thread
+    public EmployeeSnapshot(EmployeeFeignClient employeeFeignClient, long ttlMillis, long staleGraceMillis) {
+        this(EmployeeListFetcher.unconditional(employeeFeignClient), SharedTier.STANDALONE, ttlMillis, staleGraceMillis,
+                DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, new SyncTaskExecutor(), Clock.systemUTC());
+    }
+
+    EmployeeSnapshot(EmployeeFeignClient employeeFeignClient, long ttlMillis, long staleGraceMillis, Clock clock) {
+        this(EmployeeListFetcher.unconditional(employeeFeignClient), SharedTier.STANDALONE, ttlMillis, staleGraceMillis,
+                DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, new SyncTaskExecutor(), clock);
+    }
+
+    EmployeeSnapshot(EmployeeListFetcher employeeListFetcher, SharedTier sharedTier, long ttlMillis, long staleGraceMillis,
+                     long localWriteRetentionMillis, Clock clock) {
+        this(employeeListFetcher, sharedTier, ttlMillis, staleGraceMillis, localWriteRetentionMillis, new SyncTaskExecutor(), clock);
+    }
+
+    EmployeeSnapshot(EmployeeListFetcher employeeListFetcher, SharedTier sharedTier, long ttlMillis, long staleGraceMillis,
+                     long localWriteRetentionMillis, TaskExecutor refreshExecutor, Clock clock) {
+        this.employeeListFetcher = employeeListFetcher;
+        this.sharedTier = sharedTier;
+        this.ttlMillis = ttlMillis;
+        this.staleGraceMillis = staleGraceMillis;
+        this.localWrites = new LocalWrites(localWriteRetentionMillis);
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    public EmployeeDataset get() {
+        EmployeeDataset dataset = current.get();
+        if (dataset != null && ageOf(dataset) <= ttlMillis) {
+            return dataset;
+        }
+        if (dataset != null && ageOf(dataset) <= ttlMillis + staleGraceMillis) {
+            refreshInBackground();
+            //the stale copy, unless the refresh executor ran the refresh right here
+            return current.get();
+        }
+        return refreshes.execute(REFRESH, () -> {
+            //a refresh that finished just before this one was started may have left nothing to do
+            EmployeeDataset latest = current.get();
+            return latest != null && ageOf(latest) <= ttlMillis ? latest : refresh();
+        });
+    }
+
+    //one pending background refresh is enough, however many stale reads asked for it
+    private void refreshInBackground() {
+        if (!backgroundRefresh.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    EmployeeDataset latest = current.get();
+                    if (latest == null || ageOf(latest) > ttlMillis) {
+                        refreshes.execute(REFRESH, this::refresh);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Serving stale employee snapshot after refresh failure = {}", e.getMessage());
+                } finally {
+                    backgroundRefresh.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            backgroundRefresh.set(false);
+        }
+    }
+
+    /**
+     * Returns the current snapshot if it is within the TTL, without ever going upstream.
+     */
+    public Optional<EmployeeDataset> peek() {
+        EmployeeDataset dataset = current.get();
+        return dataset != null && ageOf(dataset) <= ttlMillis ? Optional.of(dataset) : Optional.empty();
+    }
+
+    /**
+     * Returns the current snapshot if it may still be served, i.e. is within the TTL plus the stale grace window,
+     * without ever going upstream. Used as a fallback when the upstream can't be asked.
+     */
+    public Optional<EmployeeDataset> peekStale() {
+        EmployeeDataset dataset = current.get();
+        return dataset != null && ageOf(dataset) <= ttlMillis + staleGraceMillis ? Optional.of(dataset) : Optional.empty();
+    }
+
+    /**
+     * Returns the most recent snapshot whatever its age, without ever going upstream.
+     */
+    public Optional<EmployeeDataset> latest() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Installs employees restored from disk if nothing has been loaded yet. They count as fresh for one TTL,
+     * which gives a background refresh time to replace them with the upstream's current list.
+     */
+    public boolean restore(EmployeeColumns columns) {
+        return current.compareAndSet(null, new EmployeeDataset(versions.incrementAndGet(), clock.millis(), columns));
+    }
+
+    /**
+     * Called after a refresh replaced the dataset with a different upstream list, with the ids that differ.
+     */
+    public void addChangeListener(Consumer<EmployeeDatasetDiff> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Called after every successful refresh, changed or not, with the dataset it left. Listeners run on the refreshing
+     * thread, which may be a reader's, so they must hand any real work off.
+     */
+    public void addRefreshListener(Consumer<EmployeeDataset> listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * A create or delete of the id made here that the upstream list has not reflected yet: the created employee,
+     * an empty value for a delete, or nothing.
+     */
+    public Optional<Optional<Employee>> localWrite(int id) {
+        return localWrites.lookup(id);
+    }
+
+    public void applyCreated(Employee employee) {
+        applyCreated(List.of(employee));
+    }
+
+    public void applyDeleted(int id) {
+        applyDeleted(Set.of(id));
+    }
+
+    public void applyCreated(Collection<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            long version = versions.incrementAndGet();
+            employees.forEach(employee -> localWrites.created(version, clock.millis(), employee));
+            //one employee is added to the indexes in place, several rebuild them once
+            current.updateAndGet(dataset -> dataset == null ? null : employees.size() == 1
+                    ? dataset.withAdded(version, employees.iterator().next()) : dataset.withAdded(version, employees));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void applyDeleted(Set<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            long version = versions.incrementAndGet();
+            ids.forEach(id -> localWrites.deleted(version, clock.millis(), id));
+            current.updateAndGet(dataset -> dataset == null ? null : ids.size() == 1
+                    ? dataset.withRemoved(version, ids.iterator().next()) : dataset.withRemoved(version, ids));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${employee.snapshot.refresh-interval-ms:30000}",
+            fixedDelayString = "${employee.snapshot.refresh-interval-ms:30000}")
+    public void scheduledRefresh() {
+        try {
+            refreshes.execute(REFRESH, this::refresh);
+        } catch (RuntimeException e) {
+            log.warn("Background employee snapshot refresh failed = {}", e.getMessage());
+        }
+    }
+
+    private EmployeeDataset refresh() {
+        EmployeeDataset dataset = refreshFromLeaderOrUpstream();
+        for (Consumer<EmployeeDataset> listener : refreshListeners) {
+            try {
+                listener.accept(dataset);
+            } catch (RuntimeException e) {
+                log.warn("Employee snapshot refresh listener failed = {}", e.getMessage());
+            }
+        }
+        return dataset;
+    }
+
+    private EmployeeDataset refreshFromLeaderOrUpstream() {
+        if (!sharedTier.isLeader()) {
+            EmployeeDataset latest = current.get();
+            Optional<SharedTier.Published> published = sharedTier.published(
+                    latest != null ? latest.getFetchedAtMillis() : Long.MIN_VALUE, adoptedPublication);
+            if (published.isPresent()) {
+                return adopt(latest, published.get());
+            }
+            if (latest != null) {
+                throw new IllegalStateException("Leader has published nothing newer than employee snapshot version " + latest.getVersion());
+            }
+            //nothing has been published yet, so a replica starting cold loads the list once itself rather than fail reads
+        }
+        EmployeeDataset dataset = refreshFromUpstream();
+        if (sharedTier.isLeader()) {
+            sharedTier.publish(dataset);
+        }
+        return dataset;
+    }
+
+    private EmployeeDataset refreshFromUpstream() {
+        Optional<EmployeeList> fetched = employeeListFetcher.fetchIfChanged();
+        EmployeeDataset latest = current.get();
+        if (fetched.isEmpty()) {
+            if (latest == null) {
+                throw new IllegalStateException("Upstream reported the employee list unchanged before one was loaded");
+            }
+            return unchanged(latest, clock.millis());
+        }
+        List<Employee> employees = fetched.get().getData() != null ? fetched.get().getData() : new ArrayList<>();
+        return install(EmployeeColumns.of(employees), clock.millis());
+    }
+
+    private EmployeeDataset adopt(EmployeeDataset latest, SharedTier.Published published) {
+        if (published.getColumns() == null) {
+            return unchanged(latest, published.getFetchedAtMillis());
+        }
+        EmployeeDataset dataset = install(published.getColumns(), published.getFetchedAtMillis());
+        adoptedPublication = published.getPublication();
+        return dataset;
+    }
+
+    private EmployeeDataset install(EmployeeColumns upstream, long fetchedAtMillis) {
+        writeLock.lock();
+        try {
+            lastUpstream = upstream;
+            //read under the lock so a local write made during the fetch is part of what the list is compared with
+            return install(current.get(), localWrites.reconcile(upstream, clock.millis()), fetchedAtMillis);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private EmployeeDataset install(EmployeeDataset latest, EmployeeColumns fresh, long fetchedAtMillis) {
+        if (latest == null) {
+            EmployeeDataset dataset = new EmployeeDataset(versions.incrementAndGet(), fetchedAtMillis, fresh);
+            current.set(dataset);
+            log.info("Employee snapshot loaded, version = {}, size = {}", dataset.getVersion(), dataset.size());
+            return dataset;
+        }
+        //an unchanged list whose body still differs, e.g. in a field we do not keep, costs one pass over the columns
+        if (latest.sameAs(fresh)) {
+            return renew(latest, fetchedAtMillis);
+        }
+        EmployeeDatasetDiff diff = EmployeeDatasetDiff.between(latest, fresh);
+        EmployeeDataset dataset = latest.withUpstream(versions.incrementAndGet(), fetchedAtMillis, fresh, diff);
+        current.set(dataset);
+        log.info("Employee snapshot refreshed, version = {}, size = {}, added = {}, removed = {}, changed = {}", dataset.getVersion(),
+                dataset.size(), diff.getAdded().length, diff.getRemoved().length, diff.getChanged().length);
+        notifyChanged(diff);
+        return dataset;
+    }
+
+    private void notifyChanged(EmployeeDatasetDiff diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+        for (Consumer<EmployeeDatasetDiff> listener : changeListeners) {
+            try {
+                listener.accept(diff);
+            } catch (RuntimeException e) {
+                log.warn("Employee snapshot change listener failed = {}", e.getMessage());
+            }
+        }
+    }
+
+    //the list is the one last reconciled, but a local write it never confirmed still has to expire on time
+    private EmployeeDataset unchanged(EmployeeDataset latest, long fetchedAtMillis) {
+        EmployeeColumns upstream = lastUpstream;
+        if (upstream != null && localWrites.anyExpired(clock.millis())) {
+            return install(upstream, fetchedAtMillis);
+        }
+        return renew(latest, fetchedAtMillis);
+    }
+
+    private EmployeeDataset renew(EmployeeDataset latest, long fetchedAtMillis) {
+        //a local change applied meanwhile is newer than what we are renewing, so keep it
+        EmployeeDataset dataset = latest.renewed(fetchedAtMillis);
+        if (!current.compareAndSet(latest, dataset)) {
+            return current.get();
+        }
+        log.debug("Employee snapshot version {} unchanged upstream", dataset.getVersion());
+        return dataset;
+    }
+
+    long ageOf(EmployeeDataset dataset) {
+        return clock.millis() - dataset.getFetchedAtMillis();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * The last good employee dataset on local disk, so a restarted instance has data before the upstream answers.
+ * Layout is a header (magic, format version, fetch time), the {@link EmployeeColumns} payload and a CRC32 of
+ * everything before it. A write maps a temp file and moves it over the old one, so readers never see half a file;
+ * a read maps the file and bulk copies the columns out of it. {@link #toBytes} and {@link #fromBytes} use the same
+ * layout for stores that hold bytes rather than files.
+ */
+public class EmployeeSnapshotFile {
+
+    private static final int MAGIC = 0x454D5053; //"EMPS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+    private static final int CHECKSUM_BYTES = 8;
+
+    private final Path path;
+
+    public EmployeeSnapshotFile(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public void write(EmployeeDataset dataset) throws IOException {
+        EmployeeColumns columns = dataset.getColumns().compacted();
+        long length = lengthOf(columns);
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                encode(dataset.getFetchedAtMillis(), columns, buffer);
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Empty when there is no file yet; a file that is truncated, corrupt or in another format fails with an IOException.
+     */
+    public Optional<Stored> read() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + CHECKSUM_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Employee snapshot " + path + " has unexpected length " + length);
+            }
+            return Optional.of(decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, length), path.toString()));
+        }
+    }
+
+    public static byte[] toBytes(EmployeeDataset dataset) throws IOException {
+        EmployeeColumns columns = dataset.getColumns().compacted();
+        ByteBuffer buffer = ByteBuffer.allocate((int) lengthOf(columns));
+        encode(dataset.getFetchedAtMillis(), columns, buffer);
+        return buffer.array();
+    }
+
+    public static Stored fromBytes(byte[] bytes, String source) throws IOException {
+        if (bytes.length < HEADER_BYTES + CHECKSUM_BYTES) {
+            throw new IOException("Employee snapshot " + source + " has unexpected length " + bytes.length);
+        }
+        return decode(ByteBuffer.wrap(bytes), source);
+    }
+
+    private static long lengthOf(EmployeeColumns columns) throws IOException {
+        long length = HEADER_BYTES + columns.serializedSize() + CHECKSUM_BYTES;
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Employee snapshot of " + length + " bytes is too large to map");
+        }
+        return length;
+    }
+
+    private static void encode(long fetchedAtMillis, EmployeeColumns columns, ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(fetchedAtMillis);
+        columns.writeTo(buffer);
+        buffer.putLong(checksum(buffer, buffer.position()));
+    }
+
+    private static Stored decode(ByteBuffer buffer, String source) throws IOException {
+        int end = buffer.limit() - CHECKSUM_BYTES;
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Employee snapshot " + source + " is not in a supported format");
+        }
+        if (buffer.getLong(end) != checksum(buffer, end)) {
+            throw new IOException("Employee snapshot " + source + " failed its checksum");
+        }
+        long fetchedAtMillis = buffer.getLong();
+        return new Stored(fetchedAtMillis, EmployeeColumns.readFrom(buffer));
+    }
+
+    private static long checksum(ByteBuffer buffer, int end) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(0).limit(end);
+        CRC32 crc = new CRC32();
+        crc.update(region);
+        return crc.getValue();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stored {
+        private final long fetchedAtMillis;
+        private final EmployeeColumns columns;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.rqchallenge.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges describing the employee snapshot currently held in memory. They read NaN until the first load.
+ */
+@Component
+public class EmployeeSnapshotMetrics {
+
+    public EmployeeSnapshotMetrics(EmployeeSnapshot employeeSnapshot, MeterRegistry meterRegistry) {
+        Gauge.builder("employee.dataset.size", employeeSnapshot,
+                        snapshot -> snapshot.latest().map(dataset -> (double) dataset.size()).orElse(Double.NaN))
+                .description("Employees in the in-memory snapshot")
+                .register(meterRegistry);
+        Gauge.builder("employee.dataset.age", employeeSnapshot,
+                        snapshot -> snapshot.latest().map(dataset -> snapshot.ageOf(dataset) / 1000.0).orElse(Double.NaN))
+                .description("Time since the in-memory snapshot was fetched from the upstream")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("employee.dataset.version", employeeSnapshot,
+                        snapshot -> snapshot.latest().map(dataset -> (double) dataset.getVersion()).orElse(Double.NaN))
+                .description("Version of the in-memory snapshot")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.rqchallenge.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Optional;
+
+/**
+ * Keeps {@link EmployeeSnapshotFile} in step with the in-memory snapshot. On startup the file is loaded before the
+ * application takes traffic and a refresh is scheduled straight away to reconcile it with the upstream; afterwards
+ * every new snapshot version is written out periodically and once more on shutdown.
+ */
+@Component
+@Slf4j
+public class EmployeeSnapshotPersistence {
+
+    private final EmployeeSnapshot employeeSnapshot;
+    private final TaskScheduler taskScheduler;
+    private final EmployeeSnapshotFile snapshotFile;
+    private final boolean enabled;
+    private final long maxAgeMillis;
+    private final Clock clock;
+    private long persistedVersion;
+
+    @Autowired
+    public EmployeeSnapshotPersistence(EmployeeSnapshot employeeSnapshot, TaskScheduler taskScheduler,
+                                       @Value("${employee.snapshot.persistence.enabled:true}") boolean enabled,
+                                       @Value("${employee.snapshot.persistence.path:data/employee-snapshot.bin}") String path,
+                                       @Value("${employee.snapshot.persistence.max-age-ms:86400000}") long maxAgeMillis) {
+        this(employeeSnapshot, taskScheduler, new EmployeeSnapshotFile(Path.of(path)), enabled, maxAgeMillis, Clock.systemUTC());
+    }
+
+    EmployeeSnapshotPersistence(EmployeeSnapshot employeeSnapshot, TaskScheduler taskScheduler, EmployeeSnapshotFile snapshotFile,
+                                boolean enabled, long maxAgeMillis, Clock clock) {
+        this.employeeSnapshot = employeeSnapshot;
+        this.taskScheduler = taskScheduler;
+        this.snapshotFile = snapshotFile;
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public synchronized void restore() {
+        if (!enabled) {
+            return;
+        }
+        Optional<EmployeeSnapshotFile.Stored> stored;
+        try {
+            stored = snapshotFile.read();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable employee snapshot file {} = {}", snapshotFile.getPath(), e.getMessage());
+            return;
+        }
+        if (stored.isEmpty()) {
+            return;
+        }
+        long age = clock.millis() - stored.get().getFetchedAtMillis();
+        if (age > maxAgeMillis) {
+            log.info("Ignoring employee snapshot file {}, it is {} ms old", snapshotFile.getPath(), age);
+            return;
+        }
+        if (employeeSnapshot.restore(stored.get().getColumns())) {
+            employeeSnapshot.latest().ifPresent(dataset -> {
+                persistedVersion = dataset.getVersion();
+                log.info("Employee snapshot restored from {}, size = {}, age = {} ms", snapshotFile.getPath(), dataset.size(), age);
+            });
+            taskScheduler.schedule(employeeSnapshot::scheduledRefresh, clock.instant());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${employee.snapshot.persistence.interval-ms:60000}",
+            fixedDelayString = "${employee.snapshot.persistence.interval-ms:60000}")
+    @PreDestroy
+    public synchronized void persist() {
+        if (!enabled) {
+            return;
+        }
+        Optional<EmployeeDataset> latest = employeeSnapshot.latest();
+        if (latest.isEmpty() || latest.get().getVersion() == persistedVersion) {
+            return;
+        }
+        try {
+            snapshotFile.write(latest.get());
+            persistedVersion = latest.get().getVersion();
+            log.debug("Employee snapshot version {} written to {}", persistedVersion, snapshotFile.getPath());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write employee snapshot file {} = {}", snapshotFile.getPath(), e.getMessage());
+        }
+    }
+}
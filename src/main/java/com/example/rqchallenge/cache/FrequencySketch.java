@@ -0,0 +1,123 @@
+package com.example.rqchallenge.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Approximate recent popularity of an unbounded set of keys in fixed memory: a count-min sketch whose counters are
+ * halved every ten times its width in records, so old popularity fades, plus up to {@code capacity} keys with the
+ * highest estimates. Counters are bumped without synchronisation; an increment lost to a race only makes an
+ * estimate slightly low, which a ranking tolerates.
+ */
+public final class FrequencySketch<K> {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9e3779b9, 0x85ebca6b, 0xc2b2ae35, 0x27d4eb2f};
+
+    private final int[] counters;
+    private final int width;
+    private final int sampleSize;
+    private final int capacity;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final Map<K, Integer> candidates = new ConcurrentHashMap<>();
+    //the lowest estimate among the candidates once they are full, which a new key has to beat
+    private volatile int admission;
+
+    public FrequencySketch(int width, int capacity) {
+        this.width = Integer.highestOneBit(Math.max(2, width - 1) << 1);
+        this.counters = new int[this.width * DEPTH];
+        this.sampleSize = 10 * this.width;
+        this.capacity = capacity;
+    }
+
+    public void record(K key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + indexOf(hash, row);
+            int count = counters[index] + 1;
+            counters[index] = count;
+            estimate = Math.min(estimate, count);
+        }
+        offer(key, estimate);
+        if (additions.incrementAndGet() >= sampleSize) {
+            age();
+        }
+    }
+
+    public int frequency(K key) {
+        int hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters[row * width + indexOf(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * The most popular keys first, at most {@code limit} of them.
+     */
+    public List<K> hottest(int limit) {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<K, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = hash * SEEDS[row];
+        return (h ^ (h >>> 16)) & (width - 1);
+    }
+
+    private void offer(K key, int estimate) {
+        if (candidates.replace(key, estimate) != null) {
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.putIfAbsent(key, estimate);
+        } else if (estimate > admission) {
+            admit(key, estimate);
+        }
+    }
+
+    //evicts the coldest candidate, which is a scan, but only for keys that have become hotter than it
+    private synchronized void admit(K key, int estimate) {
+        K coldest = null;
+        int lowest = Integer.MAX_VALUE;
+        int secondLowest = Integer.MAX_VALUE;
+        for (Map.Entry<K, Integer> candidate : candidates.entrySet()) {
+            int value = candidate.getValue();
+            if (value < lowest) {
+                secondLowest = lowest;
+                lowest = value;
+                coldest = candidate.getKey();
+            } else if (value < secondLowest) {
+                secondLowest = value;
+            }
+        }
+        if (coldest != null && estimate > lowest && !candidates.containsKey(key)) {
+            candidates.remove(coldest);
+            candidates.put(key, estimate);
+            admission = Math.min(secondLowest, estimate);
+        } else {
+            admission = lowest;
+        }
+    }
+
+    private synchronized void age() {
+        if (additions.get() < sampleSize) {
+            return;
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        candidates.replaceAll((key, estimate) -> estimate >>> 1);
+        candidates.values().removeIf(estimate -> estimate == 0);
+        admission >>>= 1;
+        additions.set(0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.model.Employee;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates and deletes this instance made upstream, one versioned delta per id, laid over every upstream list until
+ * the list reflects them. The upstream does not always persist a write, so a delta it never confirms is dropped
+ * with the first refresh after the retention, whether or not the list changed.
+ * Changed only under {@link EmployeeSnapshot}'s write lock; lookups don't lock.
+ */
+@Slf4j
+final class LocalWrites {
+
+    private final long retentionMillis;
+    private final Map<Integer, Delta> byId = new ConcurrentHashMap<>();
+
+    LocalWrites(long retentionMillis) {
+        this.retentionMillis = retentionMillis;
+    }
+
+    void created(long version, long nowMillis, Employee employee) {
+        byId.put(employee.getId(), new Delta(version, nowMillis, employee.getId(), employee));
+    }
+
+    void deleted(long version, long nowMillis, int id) {
+        byId.put(id, new Delta(version, nowMillis, id, null));
+    }
+
+    /**
+     * The pending write for the id: the created employee, an empty value for a delete, or nothing.
+     */
+    Optional<Optional<Employee>> lookup(int id) {
+        Delta delta = byId.get(id);
+        return delta == null ? Optional.empty() : Optional.of(Optional.ofNullable(delta.employee));
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Whether a delta is past the retention, so even an unchanged list has to be reconciled again to drop it.
+     */
+    boolean anyExpired(long nowMillis) {
+        for (Delta delta : byId.values()) {
+            if (nowMillis - delta.atMillis > retentionMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The upstream list with the pending writes applied. Deltas the list already reflects, a created id it holds
+     * or a deleted one it lacks, are confirmed and forgotten, as are unconfirmed ones past the retention.
+     */
+    EmployeeColumns reconcile(EmployeeColumns fresh, long nowMillis) {
+        if (byId.isEmpty()) {
+            return fresh;
+        }
+        List<Delta> pending = new ArrayList<>(byId.values());
+        pending.sort(Comparator.comparingLong(delta -> delta.version));
+        int[] present = presentIds(fresh, pending);
+        Set<Integer> deleted = new HashSet<>();
+        List<Employee> created = new ArrayList<>();
+        int confirmed = 0;
+        int expired = 0;
+        for (Delta delta : pending) {
+            boolean held = Arrays.binarySearch(present, delta.id) >= 0;
+            if (held == (delta.employee != null)) {
+                byId.remove(delta.id, delta);
+                confirmed++;
+            } else if (nowMillis - delta.atMillis > retentionMillis) {
+                log.debug("Dropping unconfirmed local {} of employee {}, version {}", delta.employee != null ? "create" : "delete", delta.id, delta.version);
+                byId.remove(delta.id, delta);
+                expired++;
+            } else if (delta.employee != null) {
+                created.add(delta.employee);
+            } else {
+                deleted.add(delta.id);
+            }
+        }
+        log.info("Local writes reconciled, confirmed = {}, expired = {}, pending = {}", confirmed, expired, created.size() + deleted.size());
+        return fresh.withRemoved(deleted).compacted().withAdded(created);
+    }
+
+    //the delta ids the list holds a live row for, sorted, found in one pass without boxing the list's ids
+    private static int[] presentIds(EmployeeColumns fresh, List<Delta> pending) {
+        int[] ids = pending.stream().mapToInt(delta -> delta.id).sorted().toArray();
+        boolean[] found = new boolean[ids.length];
+        for (int row : fresh.livePositions()) {
+            int index = Arrays.binarySearch(ids, fresh.id(row));
+            if (index >= 0) {
+                found[index] = true;
+            }
+        }
+        int[] present = new int[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (found[i]) {
+                present[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(present, count);
+    }
+
+    private static final class Delta {
+        private final long version;
+        private final long atMillis;
+        private final int id;
+        //null for a delete
+        private final Employee employee;
+
+        Delta(long version, long atMillis, int id, Employee employee) {
+            this.version = version;
+            this.atMillis = atMillis;
+            this.id = id;
+            this.employee = employee;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Value;
+
+/**
+ * A name search as the endpoint receives it, before paging.
+ */
+@Value
+public class SearchTerm {
+    String query;
+    boolean ignoreCase;
+    boolean prefix;
+}
@@ -0,0 +1,76 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * What replicas of this service share so that together they call the upstream about as often as one instance would:
+ * the leader refreshes the employee dataset and publishes it, the others adopt what it published, and single lookups
+ * answered by any instance are visible to all of them. {@link #STANDALONE} is a single instance that shares nothing.
+ */
+public interface SharedTier {
+
+    SharedTier STANDALONE = new SharedTier() {
+        @Override
+        public boolean isLeader() {
+            return true;
+        }
+
+        @Override
+        public Optional<Published> published(long fetchedAfterMillis, String knownPublication) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void publish(EmployeeDataset dataset) {
+        }
+
+        @Override
+        public Optional<Optional<Employee>> lookup(String id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void share(String id, Optional<Employee> employee) {
+        }
+
+        @Override
+        public void forget(String id) {
+        }
+    };
+
+    /**
+     * Whether this instance refreshes from the upstream itself, rather than adopting the leader's dataset.
+     */
+    boolean isLeader();
+
+    /**
+     * The leader's dataset if it was fetched after the given time. Its columns are null when it is still the
+     * publication the caller already holds, in which case only its fetch time moved on.
+     */
+    Optional<Published> published(long fetchedAfterMillis, String knownPublication);
+
+    void publish(EmployeeDataset dataset);
+
+    /**
+     * A single lookup shared by any instance: empty if none is, an empty employee if the upstream had no such id.
+     */
+    Optional<Optional<Employee>> lookup(String id);
+
+    void share(String id, Optional<Employee> employee);
+
+    void forget(String id);
+
+    @Getter
+    @AllArgsConstructor
+    class Published {
+        //identifies the content across instances, unlike dataset versions which each instance numbers itself
+        private final String publication;
+        private final long fetchedAtMillis;
+        private final EmployeeColumns columns;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.rqchallenge.codec;
+
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link Employee} JSON field by field on the Jackson streaming API instead of reflective data
+ * binding. Field names are encoded once, numbers sent as strings are parsed straight from the parser's buffer and
+ * names are interned, so an employee whose name was seen before is read without any allocation besides itself.
+ * The output is byte for byte what the bean serialiser writes, so digests of rendered responses stay the same.
+ */
+@Component
+public class EmployeeCodec {
+
+    //enough for a directory's names to be found again on the next refresh
+    private static final int INTERNED_STRINGS = 1 << 14;
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("employee_name");
+    private static final SerializedString SALARY = new SerializedString("employee_salary");
+    private static final SerializedString AGE = new SerializedString("employee_age");
+    private static final SerializedString PROFILE_IMAGE = new SerializedString("profile_image");
+
+    private final StringInterner interner;
+
+    public EmployeeCodec() {
+        this.interner = new StringInterner(INTERNED_STRINGS);
+    }
+
+    /**
+     * Reads one employee from a parser on its {@code START_OBJECT} or first field name, leaving it on the
+     * {@code END_OBJECT}. Numbers may come as JSON numbers or strings like the upstream sends them; unknown fields
+     * are skipped.
+     */
+    public Employee read(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        Employee employee = new Employee();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    employee.setId(readInt(parser, value));
+                    break;
+                case "employee_name":
+                    employee.setEmployee_name(readString(parser, value));
+                    break;
+                case "employee_salary":
+                    employee.setEmployee_salary(readInt(parser, value));
+                    break;
+                case "employee_age":
+                    employee.setEmployee_age(readInt(parser, value));
+                    break;
+                case "profile_image":
+                    employee.setProfile_image(readString(parser, value));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for an employee");
+        }
+        return employee;
+    }
+
+    public void write(Employee employee, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(employee);
+        generator.writeFieldName(ID);
+        generator.writeNumber(employee.getId());
+        generator.writeFieldName(NAME);
+        writeString(employee.getEmployee_name(), generator);
+        generator.writeFieldName(SALARY);
+        generator.writeNumber(employee.getEmployee_salary());
+        generator.writeFieldName(AGE);
+        generator.writeNumber(employee.getEmployee_age());
+        generator.writeFieldName(PROFILE_IMAGE);
+        writeString(employee.getProfile_image(), generator);
+        generator.writeEndObject();
+    }
+
+    private String readString(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_STRING:
+                return interner.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            case VALUE_NULL:
+                return null;
+            case START_OBJECT:
+            case START_ARRAY:
+                throw new JsonParseException(parser, "Expected a string for " + parser.getCurrentName());
+            default:
+                //numbers and booleans as their text, like data binding coerces them
+                return parser.getText();
+        }
+    }
+
+    private static int readInt(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_STRING:
+                return parseInt(parser);
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue();
+            case VALUE_NUMBER_FLOAT:
+            case VALUE_NULL:
+                return parser.getValueAsInt();
+            default:
+                throw new JsonParseException(parser, "Expected a number for " + parser.getCurrentName());
+        }
+    }
+
+    //data binding's coercion of a string to int, without materialising the string
+    private static int parseInt(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+        boolean negative = chars[start] == '-';
+        int i = negative || chars[start] == '+' ? start + 1 : start;
+        long value = 0;
+        boolean valid = i < end && end - i <= 18;
+        for (; valid && i < end; i++) {
+            int digit = chars[i] - '0';
+            valid = digit >= 0 && digit <= 9;
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (valid && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        String text = new String(chars, start, end - start);
+        if ("null".equals(text)) {
+            return 0;
+        }
+        throw new JsonParseException(parser, "Not a valid int for " + parser.getCurrentName() + ": \"" + text + "\"");
+    }
+
+    private static void writeString(String value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rqchallenge.codec;
+
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Binds {@link Employee} through {@link EmployeeCodec}. As a bean it is installed in the application's
+ * {@code ObjectMapper}, so the MVC message converters, the Feign decoder and the shared tier all use it.
+ */
+@Component
+public class EmployeeJsonModule extends SimpleModule {
+
+    public EmployeeJsonModule(EmployeeCodec codec) {
+        super(EmployeeJsonModule.class.getSimpleName());
+        addSerializer(Employee.class, new EmployeeSerializer(codec));
+        addDeserializer(Employee.class, new EmployeeDeserializer(codec));
+    }
+
+    private static class EmployeeSerializer extends StdSerializer<Employee> {
+        private final transient EmployeeCodec codec;
+
+        EmployeeSerializer(EmployeeCodec codec) {
+            super(Employee.class);
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(Employee employee, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            codec.write(employee, generator);
+        }
+    }
+
+    private static class EmployeeDeserializer extends StdDeserializer<Employee> {
+        private final transient EmployeeCodec codec;
+
+        EmployeeDeserializer(EmployeeCodec codec) {
+            super(Employee.class);
+            this.codec = codec;
+        }
+
+        @Override
+        public Employee deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return codec.read(parser);
+        }
+    }
+}
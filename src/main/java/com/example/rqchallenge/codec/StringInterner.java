@@ -0,0 +1,54 @@
+package com.example.rqchallenge.codec;
+
+/**
+ * A bounded, direct-mapped table of strings looked up by their characters, so a string already seen is returned
+ * without allocating. A slot holds the last string hashed to it; racing writers only cost a miss, as strings are
+ * immutable and safely published.
+ */
+final class StringInterner {
+
+    //longer values are rarely repeated and not worth hashing
+    private static final int MAX_LENGTH = 64;
+
+    private final String[] table;
+    private final int mask;
+
+    StringInterner(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    String intern(char[] chars, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = table[slot];
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String string = new String(chars, offset, length);
+        table[slot] = string;
+        return string;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
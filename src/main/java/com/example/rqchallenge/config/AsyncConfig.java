@@ -0,0 +1,85 @@
+package com.example.rqchallenge.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor the controller hands the requests that may wait on the upstream to (by id, create and delete), so Tomcat
+ * workers are released meanwhile. Reads answered from the snapshot stay on the Tomcat worker; they only wait on the
+ * upstream while there is no servable snapshot, and must not take a thread hop or queue behind the calls that do.
+ * The upstream client still blocks, so a waiting request holds one of these threads instead; the defaults match
+ * Tomcat's own 200 workers and 100 queued connections, and anything beyond that is answered with 503 at once rather
+ * than queueing into the async request timeout.
+ * With {@code employee.async.enabled=false} requests run on the calling thread as before.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String EMPLOYEE_EXECUTOR = "employeeExecutor";
+    public static final String BATCH_EXECUTOR = "employeeBatchExecutor";
+    public static final String WARMUP_EXECUTOR = "employeeWarmupExecutor";
+    public static final String REFRESH_EXECUTOR = "employeeRefreshExecutor";
+
+    @Bean(name = EMPLOYEE_EXECUTOR)
+    public TaskExecutor employeeExecutor(@Value("${employee.async.enabled:true}") boolean enabled,
+                                         @Value("${employee.async.pool-size:200}") int poolSize,
+                                         @Value("${employee.async.queue-capacity:100}") int queueCapacity) {
+        if (!enabled) {
+            return new SyncTaskExecutor();
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("employee-async-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Runs the items of batch writes. The pool size caps upstream write concurrency across all batches in flight,
+     * the rest of a batch waits in the queue; items beyond its capacity are rejected and reported as not attempted.
+     */
+    @Bean(name = BATCH_EXECUTOR)
+    public TaskExecutor employeeBatchExecutor(@Value("${employee.batch.concurrency:8}") int concurrency,
+                                              @Value("${employee.batch.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("employee-batch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Runs warm-up passes on their own thread, so a slow pass never holds up the scheduler's refreshes, persists
+     * and leadership renewals.
+     */
+    @Bean(name = WARMUP_EXECUTOR)
+    public TaskExecutor employeeWarmupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("employee-warmup-");
+        return executor;
+    }
+
+    /**
+     * Runs the snapshot refreshes that stale reads start, so the reader answers with the stale copy straight away.
+     */
+    @Bean(name = REFRESH_EXECUTOR)
+    public TaskExecutor employeeRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("employee-refresh-");
+        return executor;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Writes collections as newline-delimited JSON, one element per line, flushing every few hundred elements
+ * so clients see the first records while the rest is still being serialised. Employees are written by
+ * {@link EmployeeCodec} directly rather than through a writer call per element.
+ */
+public class NdjsonHttpMessageConverter extends AbstractHttpMessageConverter<Collection<?>> {
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final EmployeeCodec employeeCodec;
+
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper, EmployeeCodec employeeCodec) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+        this.employeeCodec = employeeCodec;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NDJSON request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> items, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(outputMessage.getBody()))) {
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            for (Object item : items) {
+                if (item instanceof Employee) {
+                    employeeCodec.write((Employee) item, generator);
+                } else {
+                    writer.writeValue(generator, item);
+                }
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+}
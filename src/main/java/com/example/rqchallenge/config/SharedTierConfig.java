@@ -0,0 +1,62 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.shared.InProcessSharedStore;
+import com.example.rqchallenge.shared.RedisSharedStore;
+import com.example.rqchallenge.shared.SharedStore;
+import com.example.rqchallenge.shared.StoreSharedTier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.UUID;
+
+/**
+ * The {@link SharedTier} replicas coordinate through. Off by default, leaving a standalone instance; with
+ * {@code employee.shared.enabled=true} the store is Redis, configured through the usual {@code spring.redis.*}
+ * properties, or with {@code employee.shared.store=in-process} a store that only this JVM sees.
+ */
+@Configuration
+public class SharedTierConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.shared.enabled", havingValue = "false", matchIfMissing = true)
+    public SharedTier standaloneSharedTier() {
+        return SharedTier.STANDALONE;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "employee.shared.enabled", havingValue = "true")
+    static class Shared {
+
+        @Bean
+        @ConditionalOnProperty(name = "employee.shared.store", havingValue = "redis", matchIfMissing = true)
+        public SharedStore redisSharedStore(RedisConnectionFactory connectionFactory) {
+            return new RedisSharedStore(connectionFactory);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "employee.shared.store", havingValue = "in-process")
+        public SharedStore inProcessSharedStore() {
+            return new InProcessSharedStore();
+        }
+
+        @Bean
+        public StoreSharedTier sharedTier(SharedStore sharedStore, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                          @Value("${employee.shared.instance-id:}") String instanceId,
+                                          @Value("${employee.shared.lease-ms:15000}") long leaseMillis,
+                                          @Value("${employee.shared.lease-renew-ms:5000}") long leaseRenewMillis,
+                                          @Value("${employee.shared.by-id.ttl-ms:60000}") long idTtlMillis,
+                                          @Value("${employee.shared.by-id.negative-ttl-ms:5000}") long negativeIdTtlMillis) {
+            StoreSharedTier sharedTier = new StoreSharedTier(sharedStore, objectMapper, instanceId.isEmpty() ? UUID.randomUUID().toString() : instanceId,
+                    leaseMillis, idTtlMillis, negativeIdTtlMillis, meterRegistry);
+            //not on the shared scheduler, where it would queue behind snapshot refreshes and persists
+            sharedTier.startRenewal(leaseRenewMillis);
+            return sharedTier;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeCodec employeeCodec;
+
+    public WebConfig(ObjectMapper objectMapper, EmployeeCodec employeeCodec) {
+        this.objectMapper = objectMapper;
+        this.employeeCodec = employeeCodec;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new NdjsonHttpMessageConverter(objectMapper, employeeCodec));
+    }
+}
@@ -1,64 +1,175 @@
 package com.example.rqchallenge.controller;
 
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.config.AsyncConfig;
 import com.example.rqchallenge.exception.EmployeeNotFoundException;
-import com.example.rqchallenge.exception.GenericException;
+import com.example.rqchallenge.exception.InvalidCursorException;
+import com.example.rqchallenge.model.AgeBand;
+import com.example.rqchallenge.model.BatchResult;
 import com.example.rqchallenge.model.Employee;
 import com.example.rqchallenge.model.EmployeeInput;
+import com.example.rqchallenge.model.EmployeePage;
+import com.example.rqchallenge.model.EmployeeQuery;
 import com.example.rqchallenge.model.EmployeeResponse;
+import com.example.rqchallenge.model.HistogramBucket;
+import com.example.rqchallenge.model.SalaryStats;
 import com.example.rqchallenge.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
-import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Validated
 public class EmployeeController implements IEmployeeController {
 
     @Autowired
     public EmployeeService employeeService;
 
+    @Autowired
+    @Qualifier(AsyncConfig.EMPLOYEE_EXECUTOR)
+    public TaskExecutor employeeExecutor;
+
+    @Autowired
+    public PrerenderedResponses prerenderedResponses;
+
+    //longer than employee.batch.deadline-ms plus the slowest upstream call an item can still be making
+    @Value("${employee.batch.request-timeout-ms:60000}")
+    public long batchRequestTimeoutMillis = 60000;
+
     @Override
-    public ResponseEntity<List<Employee>> getAllEmployees() throws IOException, EmployeeNotFoundException {
-        List<Employee> employeelist = employeeService.getAllEmployees();
-        return new ResponseEntity<>(employeelist, HttpStatus.OK);
+    public ResponseEntity<?> getAllEmployees(HttpHeaders headers) throws Exception {
+        if (headers.getAccept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)) {
+            List<Employee> employeelist = employeeService.getAllEmployees();
+            return new ResponseEntity<>(employeelist, HttpStatus.OK);
+        }
+        EmployeeDataset dataset = employeeService.currentDataset();
+        return prerenderedResponses.respond("all", dataset.getVersion(), headers, () -> employeeService.getAllEmployees(dataset));
     }
 
     @Override
-    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) throws EmployeeNotFoundException {
-        List<Employee> filteredList = employeeService.getEmployeesByNameSearch(searchString);
+    public ResponseEntity<EmployeePage> queryEmployees(@Valid EmployeeQuery query) throws EmployeeNotFoundException, InvalidCursorException {
+        return new ResponseEntity<>(employeeService.queryEmployees(query), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean prefix, int page, Integer size) throws EmployeeNotFoundException {
+        List<Employee> filteredList = employeeService.getEmployeesByNameSearch(searchString, ignoreCase, prefix, page, size);
         return new ResponseEntity<>(filteredList, HttpStatus.OK);
     }
 
     @Override
-    public ResponseEntity<Employee> getEmployeeById(String id) throws EmployeeNotFoundException {
-        Employee employee = employeeService.getEmployeeById(id);
-        return new ResponseEntity<>(employee, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(String id) {
+        return async(() -> {
+            Employee employee = employeeService.getEmployeeById(id);
+            return new ResponseEntity<>(employee, HttpStatus.OK);
+        });
+    }
+
+    @Override
+    public ResponseEntity<?> getHighestSalaryOfEmployees(HttpHeaders headers) throws Exception {
+        EmployeeDataset dataset = employeeService.currentDataset();
+        return prerenderedResponses.respond("highestSalary", dataset.getVersion(), headers,
+                () -> employeeService.getHighestSalaryOfEmployees(dataset));
+    }
+
+    @Override
+    public ResponseEntity<?> getTopTenHighestEarningEmployeeNames(HttpHeaders headers) throws Exception {
+        EmployeeDataset dataset = employeeService.currentDataset();
+        return prerenderedResponses.respond("topTenHighestEarningEmployeeNames", dataset.getVersion(), headers,
+                () -> employeeService.getTopTenHighestEarningEmployeeNames(dataset));
+    }
+
+    @Override
+    public ResponseEntity<List<Employee>> getTopEarners(int n) throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getTopEarners(n), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<SalaryStats> getSalaryStats() throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getSalaryStats(), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<Employee>> getTopEmployees(String by, int k) throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getTopEmployees(by, k), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<Map<String, Integer>> getSalaryPercentiles(List<Double> p) throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getSalaryPercentiles(p), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<HistogramBucket>> getSalaryHistogram(int buckets) throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getSalaryHistogram(buckets), HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<List<AgeBand>> getAgeBands(int width) throws EmployeeNotFoundException {
+        return new ResponseEntity<>(employeeService.getAgeBands(width), HttpStatus.OK);
     }
 
     @Override
-    public ResponseEntity<Integer> getHighestSalaryOfEmployees() throws EmployeeNotFoundException {
-        return new ResponseEntity<>(employeeService.getHighestSalaryOfEmployees(), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> createEmployee(@RequestBody @Valid EmployeeInput employeeInput) {
+        return async(() -> {
+            EmployeeResponse newEmployee = employeeService.createEmployee(employeeInput);
+            return new ResponseEntity<>(newEmployee.getMessage(), HttpStatus.CREATED);
+        });
     }
 
     @Override
-    public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() throws EmployeeNotFoundException {
-        List<String> highestEarningEmployees = employeeService.getTopTenHighestEarningEmployeeNames();
-        return new ResponseEntity<>(highestEarningEmployees, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<String>> deleteEmployeeById(String id) {
+        return async(() -> new ResponseEntity<>(employeeService.deleteEmployeeById(id), HttpStatus.OK));
     }
 
     @Override
-    public ResponseEntity<String> createEmployee(@RequestBody @Valid EmployeeInput employeeInput) throws GenericException {
-        EmployeeResponse newEmployee = employeeService.createEmployee(employeeInput);
-        return new ResponseEntity<>(newEmployee.getMessage(), HttpStatus.CREATED);
+    public DeferredResult<ResponseEntity<BatchResult>> createEmployees(List<EmployeeInput> employeeInputs) {
+        return batch(employeeService.createEmployees(employeeInputs));
     }
 
     @Override
-    public ResponseEntity<String> deleteEmployeeById(String id) throws GenericException {
-        return new ResponseEntity<>(employeeService.deleteEmployeeById(id), HttpStatus.OK);
+    public DeferredResult<ResponseEntity<BatchResult>> deleteEmployeesById(List<String> ids) {
+        return batch(employeeService.deleteEmployeesById(ids));
+    }
+
+    //a batch outlives spring.mvc.async.request-timeout, so it gets its own, and no thread waits while its items run
+    private DeferredResult<ResponseEntity<BatchResult>> batch(CompletableFuture<BatchResult> batchResult) {
+        DeferredResult<ResponseEntity<BatchResult>> result = new DeferredResult<>(batchRequestTimeoutMillis);
+        batchResult.whenComplete((batch, e) -> {
+            if (e != null) {
+                result.setErrorResult(e);
+            } else {
+                result.setResult(new ResponseEntity<>(batch, HttpStatus.OK));
+            }
+        });
+        return result;
+    }
+
+    //only calls that may wait on the upstream leave the servlet thread; checked service exceptions complete the future exceptionally and still reach EmployeeControllerAdvice
+    private <T> CompletableFuture<T> async(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        employeeExecutor.execute(() -> {
+            try {
+                future.complete(call.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
     }
 }
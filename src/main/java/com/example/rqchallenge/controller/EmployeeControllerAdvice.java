@@ -3,48 +3,108 @@ package com.example.rqchallenge.controller;
 import com.example.rqchallenge.exception.EmployeeNotFoundException;
 import com.example.rqchallenge.model.ErrorResponse;
 import com.example.rqchallenge.exception.GenericException;
+import com.example.rqchallenge.exception.InvalidCursorException;
+import com.example.rqchallenge.exception.UpstreamRateLimitedException;
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
 import com.example.rqchallenge.model.ResponseData;
 import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
-import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Maps exceptions to error answers. An error storm is a burst of these, so they are logged at DEBUG only and
+ * upstream failures are counted in {@code employee.upstream.errors} by status instead.
+ */
 @RestControllerAdvice
 @Slf4j
 public class EmployeeControllerAdvice {
 
+    @Autowired
+    public MeterRegistry meterRegistry;
+
+    @Autowired
+    public ErrorResponses errorResponses;
+
+    private final Map<String, Counter> upstreamErrors = new ConcurrentHashMap<>();
+
     @ExceptionHandler(EmployeeNotFoundException.class)
-    public ResponseEntity<ResponseData> handleEmployeeNotFound() {
-        return new ResponseEntity<>(new ResponseData(Constants.STATUS_429, Constants.MSG_429, null), HttpStatus.NOT_FOUND);
+    public ResponseEntity<byte[]> handleEmployeeNotFound() {
+        return errorResponses.notFound();
     }
 
+    //classified by status code, which the upstream error decoder keeps on every exception it creates
     @ExceptionHandler(FeignException.class)
-    public ResponseEntity<?> handleUpstreamSystemError(FeignException e, HttpServletResponse response) {
-        log.error("UpstreamSystemError Error = {}", e.getMessage());
+    public ResponseEntity<byte[]> handleUpstreamSystemError(FeignException e) throws JsonProcessingException {
+        log.debug("UpstreamSystemError Error = {}", e.getMessage());
+
+        switch (e.status()) {
+            case 429:
+                countUpstreamError("429");
+                return errorResponses.tooManyRequests();
+            case 404:
+                countUpstreamError("404");
+                return errorResponses.notFound();
+            case 405:
+                countUpstreamError("405");
+                return errorResponses.methodNotAllowed();
+            default:
+                countUpstreamError("unknown");
+                return errorResponses.render(HttpStatus.INTERNAL_SERVER_ERROR, new ResponseData(Constants.STATUS_UNKNOWN, e.getMessage(), null));
+        }
+    }
+
+    @ExceptionHandler(UpstreamRateLimitedException.class)
+    public ResponseEntity<byte[]> handleUpstreamRateLimited(UpstreamRateLimitedException e) {
+        log.debug("UpstreamRateLimited = {}", e.getMessage());
+        countUpstreamError("rate_limited");
+        return errorResponses.tooManyRequests();
+    }
 
-        if (e.getMessage().contains(Constants.STATUS_429))
-            return new ResponseEntity<>(new ResponseData(Constants.STATUS_429, Constants.MSG_429, null), HttpStatus.TOO_MANY_REQUESTS);
-        else if (e.getMessage().contains(Constants.STATUS_404))
-            return new ResponseEntity<>(new ResponseData(Constants.STATUS_404, Constants.MSG_404, null), HttpStatus.NOT_FOUND);
-        else if (e.getMessage().contains(Constants.STATUS_405))
-            return new ResponseEntity<>(new ResponseData(Constants.STATUS_405, Constants.MSG_405, null), HttpStatus.METHOD_NOT_ALLOWED);
-        else
-            return new ResponseEntity<>(new ResponseData(Constants.STATUS_UNKNOWN, e.getMessage(), null), HttpStatus.INTERNAL_SERVER_ERROR);
+    //open circuit or full bulkhead: the call was refused locally, and an open circuit knows when it will probe again
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<byte[]> handleUpstreamUnavailable(UpstreamUnavailableException e) {
+        log.debug("UpstreamUnavailable = {}", e.getMessage());
+        countUpstreamError("unavailable");
+        return errorResponses.upstreamUnavailable(e.getRetryAfterMillis());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<byte[]> handleTaskRejected(TaskRejectedException e) {
+        log.debug("TaskRejected = {}", e.getMessage());
+        return errorResponses.busy();
+    }
+
+    //the request outlived spring.mvc.async.request-timeout waiting for an executor thread or the upstream
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<byte[]> handleAsyncRequestTimeout() {
+        log.debug("AsyncRequestTimeout");
+        return errorResponses.busy();
     }
 
     @ExceptionHandler(GenericException.class)
-    public ResponseEntity<ResponseData> handleGenericException(GenericException e) {
-        log.error("GenericException = {}", e.getMessage());
-        return new ResponseEntity<>(e.getResponseData(), HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> handleGenericException(GenericException e) throws JsonProcessingException {
+        log.debug("GenericException = {}", e.getMessage());
+        return errorResponses.render(HttpStatus.INTERNAL_SERVER_ERROR, e.getResponseData());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -54,8 +114,40 @@ public class EmployeeControllerAdvice {
             errorDetails.add(error.getDefaultMessage());
         }
         ErrorResponse error = new ErrorResponse("Validation Failed", errorDetails);
-        log.error("MethodArgumentNotValid Errors = {}", error);
+        log.debug("MethodArgumentNotValid Errors = {}", error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<ErrorResponse> handleBindException(BindException e) {
+        List<String> errorDetails = new ArrayList<>();
+        for (ObjectError error : e.getBindingResult().getAllErrors()) {
+            errorDetails.add(error.getDefaultMessage());
+        }
+        ErrorResponse error = new ErrorResponse("Validation Failed", errorDetails);
+        log.debug("Bind Errors = {}", error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException e) {
+        ErrorResponse error = new ErrorResponse("Invalid Cursor", List.of(e.getMessage()));
+        log.debug("InvalidCursor = {}", e.getMessage());
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException e) {
+        List<String> errorDetails = new ArrayList<>();
+        for (ConstraintViolation<?> violation : e.getConstraintViolations()) {
+            errorDetails.add(violation.getMessage());
+        }
+        ErrorResponse error = new ErrorResponse("Validation Failed", errorDetails);
+        log.debug("ConstraintViolation Errors = {}", error);
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    private void countUpstreamError(String status) {
+        upstreamErrors.computeIfAbsent(status, key -> meterRegistry.counter("employee.upstream.errors", "status", key)).increment();
+    }
 }
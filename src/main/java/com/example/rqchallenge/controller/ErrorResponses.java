@@ -0,0 +1,72 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.model.ResponseData;
+import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * The fixed error answers of {@link EmployeeControllerAdvice}, serialised once at startup. Responses are immutable,
+ * so every request of an error burst is answered with the same instance and bytes.
+ */
+@Component
+public class ErrorResponses {
+
+    private final ObjectMapper objectMapper;
+    private final ResponseEntity<byte[]> notFound;
+    private final ResponseEntity<byte[]> methodNotAllowed;
+    private final ResponseEntity<byte[]> tooManyRequests;
+    private final ResponseEntity<byte[]> busy;
+    private final ResponseEntity<byte[]> upstreamUnavailable;
+
+    public ErrorResponses(ObjectMapper objectMapper) throws JsonProcessingException {
+        this.objectMapper = objectMapper;
+        this.notFound = render(HttpStatus.NOT_FOUND, new ResponseData(Constants.STATUS_404, Constants.MSG_404, null));
+        this.methodNotAllowed = render(HttpStatus.METHOD_NOT_ALLOWED, new ResponseData(Constants.STATUS_405, Constants.MSG_405, null));
+        this.tooManyRequests = render(HttpStatus.TOO_MANY_REQUESTS, new ResponseData(Constants.STATUS_429, Constants.MSG_429, null));
+        this.busy = render(HttpStatus.SERVICE_UNAVAILABLE, new ResponseData(Constants.STATUS_503, Constants.MSG_503, null));
+        this.upstreamUnavailable = render(HttpStatus.SERVICE_UNAVAILABLE, new ResponseData(Constants.STATUS_503, Constants.MSG_503_UPSTREAM, null));
+    }
+
+    public ResponseEntity<byte[]> notFound() {
+        return notFound;
+    }
+
+    public ResponseEntity<byte[]> methodNotAllowed() {
+        return methodNotAllowed;
+    }
+
+    public ResponseEntity<byte[]> tooManyRequests() {
+        return tooManyRequests;
+    }
+
+    public ResponseEntity<byte[]> busy() {
+        return busy;
+    }
+
+    //only the header differs per answer, the body is shared
+    public ResponseEntity<byte[]> upstreamUnavailable(long retryAfterMillis) {
+        if (retryAfterMillis <= 0) {
+            return upstreamUnavailable;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                .body(upstreamUnavailable.getBody());
+    }
+
+    /**
+     * An answer whose body is only known per error, serialised the same way as the fixed ones.
+     */
+    public ResponseEntity<byte[]> render(HttpStatus status, ResponseData body) throws JsonProcessingException {
+        if (body == null) {
+            return ResponseEntity.status(status).build();
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(objectMapper.writeValueAsBytes(body));
+    }
+}
@@ -1,40 +1,100 @@
 package com.example.rqchallenge.controller;
 
 import com.example.rqchallenge.exception.EmployeeNotFoundException;
-import com.example.rqchallenge.exception.GenericException;
+import com.example.rqchallenge.exception.InvalidCursorException;
+import com.example.rqchallenge.model.AgeBand;
+import com.example.rqchallenge.model.BatchResult;
 import com.example.rqchallenge.model.Employee;
 import com.example.rqchallenge.model.EmployeeInput;
+import com.example.rqchallenge.model.EmployeePage;
+import com.example.rqchallenge.model.EmployeeQuery;
+import com.example.rqchallenge.model.HistogramBucket;
+import com.example.rqchallenge.model.SalaryStats;
+import com.example.rqchallenge.util.Constants;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
-import java.io.IOException;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/employee-challenge-2024/api/v1")
 public interface IEmployeeController {
 
+    //JSON answers carry an ETag, honour If-None-Match and are gzipped when accepted; NDJSON is streamed as before
     @GetMapping()
-    ResponseEntity<List<Employee>> getAllEmployees() throws IOException, EmployeeNotFoundException;
+    ResponseEntity<?> getAllEmployees(@RequestHeader HttpHeaders headers) throws Exception;
+
+    @GetMapping("/query")
+    ResponseEntity<EmployeePage> queryEmployees(@Valid EmployeeQuery query) throws EmployeeNotFoundException, InvalidCursorException;
 
     @GetMapping("/search/{searchString}")
-    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString) throws EmployeeNotFoundException;
+    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                            @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                            @RequestParam(defaultValue = "false") boolean prefix,
+                                                            @RequestParam(defaultValue = "0") @Min(value = 0, message = "page can't be negative") int page,
+                                                            @RequestParam(required = false) @Min(value = 1, message = "size should be at least 1") Integer size) throws EmployeeNotFoundException;
 
     @GetMapping("/{id}")
-    ResponseEntity<Employee> getEmployeeById(@PathVariable String id) throws EmployeeNotFoundException;
+    CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id);
 
     @GetMapping("/highestSalary")
-    ResponseEntity<Integer> getHighestSalaryOfEmployees() throws EmployeeNotFoundException;
+    ResponseEntity<?> getHighestSalaryOfEmployees(@RequestHeader HttpHeaders headers) throws Exception;
 
     @GetMapping("/topTenHighestEarningEmployeeNames")
-    ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() throws EmployeeNotFoundException;
+    ResponseEntity<?> getTopTenHighestEarningEmployeeNames(@RequestHeader HttpHeaders headers) throws Exception;
+
+    @GetMapping("/topEarners")
+    ResponseEntity<List<Employee>> getTopEarners(@RequestParam(defaultValue = "10") @Min(value = 1, message = "n should be at least 1") int n) throws EmployeeNotFoundException;
+
+    @GetMapping("/salaryStats")
+    ResponseEntity<SalaryStats> getSalaryStats() throws EmployeeNotFoundException;
+
+    @GetMapping("/top")
+    ResponseEntity<List<Employee>> getTopEmployees(@RequestParam(defaultValue = "salary") @Pattern(regexp = "salary|age", message = "by should be salary or age") String by,
+                                                   @RequestParam(defaultValue = "10") @Min(value = 1, message = "k should be at least 1") int k) throws EmployeeNotFoundException;
+
+    @GetMapping("/salaryPercentiles")
+    ResponseEntity<Map<String, Integer>> getSalaryPercentiles(@RequestParam(defaultValue = "50,90,99")
+                                                              @NotEmpty(message = "At least one percentile is required")
+                                                              List<@DecimalMin(value = "0", inclusive = false, message = "p should be above 0")
+                                                              @DecimalMax(value = "100", message = "p should be at most 100") Double> p) throws EmployeeNotFoundException;
+
+    @GetMapping("/salaryHistogram")
+    ResponseEntity<List<HistogramBucket>> getSalaryHistogram(@RequestParam(defaultValue = "10")
+                                                             @Min(value = 1, message = "buckets should be at least 1")
+                                                             @Max(value = Constants.MAX_HISTOGRAM_BUCKETS, message = "buckets should be at most " + Constants.MAX_HISTOGRAM_BUCKETS) int buckets) throws EmployeeNotFoundException;
+
+    @GetMapping("/ageBands")
+    ResponseEntity<List<AgeBand>> getAgeBands(@RequestParam(defaultValue = "10") @Min(value = 1, message = "width should be at least 1") int width) throws EmployeeNotFoundException;
 
     @PostMapping()
-    ResponseEntity<String> createEmployee(@RequestBody @Valid EmployeeInput employeeInput) throws GenericException;
+    CompletableFuture<ResponseEntity<String>> createEmployee(@RequestBody @Valid EmployeeInput employeeInput);
 
     @DeleteMapping("/{id}")
-    ResponseEntity<String> deleteEmployeeById(@PathVariable String id) throws GenericException;
+    CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id);
+
+    @PostMapping("/batch")
+    DeferredResult<ResponseEntity<BatchResult>> createEmployees(@RequestBody
+                                                                @NotEmpty(message = "At least one employee is required")
+                                                                @Size(max = Constants.MAX_BATCH_SIZE, message = "A batch can have at most " + Constants.MAX_BATCH_SIZE + " employees")
+                                                                List<@Valid EmployeeInput> employeeInputs);
+
+    @DeleteMapping("/batch")
+    DeferredResult<ResponseEntity<BatchResult>> deleteEmployeesById(@RequestBody
+                                                                    @NotEmpty(message = "At least one id is required")
+                                                                    @Size(max = Constants.MAX_BATCH_SIZE, message = "A batch can have at most " + Constants.MAX_BATCH_SIZE + " ids")
+                                                                    List<@Pattern(regexp = "^[0-9]+$", message = "Id must be numeric") String> ids);
 
 }
@@ -0,0 +1,170 @@
+package com.example.rqchallenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON read responses that only depend on the dataset, serialised and gzipped once per endpoint and dataset version.
+ * The strong ETag is a digest of the JSON, so it stays valid across restarts and instances holding the same data,
+ * and a matching {@code If-None-Match}, weak or strong, is answered with 304 without touching the body.
+ */
+@Component
+public class PrerenderedResponses {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Prerendered> byEndpoint = new ConcurrentHashMap<>();
+    //renders in progress, by endpoint and version
+    private final ConcurrentMap<String, CompletableFuture<Prerendered>> rendering = new ConcurrentHashMap<>();
+    //by endpoint and result, so the hottest reads don't look their counter up in the registry each time
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public PrerenderedResponses(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param body computes the response for this version; only called when it has not been rendered yet
+     */
+    public ResponseEntity<?> respond(String endpoint, long version, HttpHeaders requestHeaders, Callable<Object> body) throws Exception {
+        Prerendered prerendered = byEndpoint.get(endpoint);
+        if (prerendered == null || prerendered.version != version) {
+            prerendered = renderOnce(endpoint, version, body);
+        }
+        boolean gzip = prerendered.gzip != null && acceptsGzip(requestHeaders);
+        String etag = gzip ? prerendered.gzipEtag : prerendered.etag;
+        if (matches(requestHeaders.getIfNoneMatch(), etag)) {
+            count(endpoint, "not_modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        count(endpoint, "served");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(gzip ? prerendered.gzip : prerendered.json);
+    }
+
+    //requests that find the same version missing share one render instead of each serialising the dataset
+    private Prerendered renderOnce(String endpoint, long version, Callable<Object> body) throws Exception {
+        String key = endpoint + "@" + version;
+        CompletableFuture<Prerendered> mine = new CompletableFuture<>();
+        CompletableFuture<Prerendered> existing = rendering.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            //another render of this version may have finished between the lookup and winning the key
+            Prerendered prerendered = byEndpoint.get(endpoint);
+            if (prerendered == null || prerendered.version != version) {
+                prerendered = render(version, body.call());
+                //a slow render of an older version must not replace a newer one
+                prerendered = byEndpoint.merge(endpoint, prerendered, (old, rendered) -> rendered.version >= old.version ? rendered : old);
+                count(endpoint, "rendered");
+            }
+            mine.complete(prerendered);
+            return prerendered;
+        } catch (Exception | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    private static Prerendered await(CompletableFuture<Prerendered> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private Prerendered render(long version, Object body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        String digest = DigestUtils.md5DigestAsHex(json);
+        byte[] gzip = null;
+        if (json.length >= GZIP_MIN_BYTES) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            }
+            gzip = compressed.toByteArray();
+        }
+        //each encoding is its own representation, so it gets its own strong ETag
+        return new Prerendered(version, json, gzip, "\"" + digest + "\"", gzip != null ? "\"" + digest + "-" + GZIP + "\"" : null);
+    }
+
+    //only the ETag of the representation being served counts, so a gzip tag never validates an identity body
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            //If-None-Match uses the weak comparison, so W/"x" matches "x" (RFC 7232 3.2)
+            String opaque = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(opaque) || etag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                    return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    private void count(String endpoint, String result) {
+        counters.computeIfAbsent(endpoint + "/" + result, key -> Counter.builder("employee.responses.prerendered")
+                .description("Read responses by whether they were rendered, served from the prerendered bytes or not modified")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    @AllArgsConstructor
+    private static class Prerendered {
+        private final long version;
+        private final byte[] json;
+        //null when the JSON is too small to be worth compressing
+        private final byte[] gzip;
+        private final String etag;
+        //null with the gzip body
+        private final String gzipEtag;
+    }
+}
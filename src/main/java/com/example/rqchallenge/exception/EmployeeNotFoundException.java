@@ -2,7 +2,8 @@ package com.example.rqchallenge.exception;
 
 public class EmployeeNotFoundException extends Exception {
 
+    //thrown for every miss, so no stack trace is captured
     public EmployeeNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
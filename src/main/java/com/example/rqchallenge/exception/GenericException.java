@@ -11,7 +11,7 @@ public class GenericException extends Exception {
     private ResponseData responseData;
 
     public GenericException(ResponseData responseData) {
-        super(responseData != null ? responseData.getMessage() : "Null Response from Server");
+        super(responseData != null ? responseData.getMessage() : "Null Response from Server", null, false, false);
         this.responseData = responseData;
     }
 }
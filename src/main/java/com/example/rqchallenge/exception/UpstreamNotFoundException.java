@@ -0,0 +1,22 @@
+package com.example.rqchallenge.exception;
+
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Upstream 404, still a {@link FeignException.NotFound} for the callers that catch that.
+ */
+public class UpstreamNotFoundException extends FeignException.NotFound {
+
+    public UpstreamNotFoundException(String message, Request request, Map<String, Collection<String>> headers) {
+        super(message, request, null, headers);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.rqchallenge.exception;
+
+public class UpstreamRateLimitedException extends RuntimeException {
+
+    public UpstreamRateLimitedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.rqchallenge.exception;
+
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An upstream error status without a more specific type, classified by {@link #status()}.
+ * Like the other upstream status exceptions it carries no stack trace: the failure is the upstream's answer,
+ * and capturing the stack of every request of an error burst would cost more than handling it.
+ */
+public class UpstreamStatusException extends FeignException {
+
+    public UpstreamStatusException(int status, String message, Request request, Map<String, Collection<String>> headers) {
+        super(status, message, request, null, headers);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.rqchallenge.exception;
+
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Upstream 429; its Retry-After stays readable from {@link #responseHeaders()}.
+ */
+public class UpstreamTooManyRequestsException extends FeignException.TooManyRequests {
+
+    public UpstreamTooManyRequestsException(String message, Request request, Map<String, Collection<String>> headers) {
+        super(message, request, null, headers);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
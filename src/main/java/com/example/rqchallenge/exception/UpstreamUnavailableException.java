@@ -0,0 +1,18 @@
+package com.example.rqchallenge.exception;
+
+import lombok.Getter;
+
+/**
+ * An upstream call that was refused locally, without reaching the upstream: its circuit is open or its bulkhead is full.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+
+    //0 when there is no better estimate than retrying right away
+    private final long retryAfterMillis;
+
+    public UpstreamUnavailableException(String message, long retryAfterMillis) {
+        super(message, null, false, false);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+}
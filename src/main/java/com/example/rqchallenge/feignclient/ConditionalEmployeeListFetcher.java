@@ -0,0 +1,129 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.model.EmployeeList;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Fetches the employee list only when it changed. If the upstream sent an {@code ETag} or {@code Last-Modified}
+ * it is replayed as {@code If-None-Match} / {@code If-Modified-Since}, so an unchanged list costs a 304 and no body.
+ * Otherwise the body is read into a reused buffer and hashed, and only decoded when the hash differs from the last one.
+ */
+@Component
+public class ConditionalEmployeeListFetcher implements EmployeeListFetcher {
+
+    private static final Validators NONE = new Validators(null, null, -1, 0);
+
+    private final EmployeeFeignClient employeeFeignClient;
+    private final EmployeeListReader employeeListReader;
+    private final Counter notModified;
+    private final Counter unchanged;
+    private final Counter modified;
+    private Validators validators = NONE;
+    private byte[] buffer = new byte[64 * 1024];
+
+    public ConditionalEmployeeListFetcher(EmployeeFeignClient employeeFeignClient, EmployeeListReader employeeListReader,
+                                          MeterRegistry meterRegistry) {
+        this.employeeFeignClient = employeeFeignClient;
+        this.employeeListReader = employeeListReader;
+        this.notModified = fetches(meterRegistry, "not_modified");
+        this.unchanged = fetches(meterRegistry, "unchanged");
+        this.modified = fetches(meterRegistry, "modified");
+    }
+
+    @Override
+    public synchronized Optional<EmployeeList> fetchIfChanged() {
+        try (Response response = employeeFeignClient.getAllEmployeesResponse(validators.etag, validators.lastModified)) {
+            if (response.status() == 304) {
+                notModified.increment();
+                return Optional.empty();
+            }
+            String etag = header(response, HttpHeaders.ETAG);
+            String lastModified = header(response, HttpHeaders.LAST_MODIFIED);
+            if (response.body() == null) {
+                validators = NONE;
+                modified.increment();
+                return Optional.of(new EmployeeList());
+            }
+            if (etag != null || lastModified != null) {
+                EmployeeList employeeList = employeeListReader.read(response.body().asInputStream());
+                validators = new Validators(etag, lastModified, -1, 0);
+                modified.increment();
+                return Optional.of(employeeList);
+            }
+            int length = readFully(response.body().asInputStream());
+            long hash = hash(buffer, length);
+            if (hash == validators.bodyHash && length == validators.bodyLength) {
+                unchanged.increment();
+                return Optional.empty();
+            }
+            EmployeeList employeeList = employeeListReader.read(new ByteArrayInputStream(buffer, 0, length));
+            validators = new Validators(null, null, hash, length);
+            modified.increment();
+            return Optional.of(employeeList);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readFully(InputStream body) throws IOException {
+        int length = 0;
+        int read;
+        while ((read = body.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        return length;
+    }
+
+    //two different 32 bit CRCs, both hardware accelerated, so a false "unchanged" needs both to collide
+    static long hash(byte[] bytes, int length) {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes, 0, length);
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, length);
+        return (crc32c.getValue() << 32) | crc32.getValue();
+    }
+
+    private static String header(Response response, String name) {
+        for (Map.Entry<String, Collection<String>> entry : response.headers().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                Collection<String> values = entry.getValue();
+                return values.isEmpty() ? null : values.iterator().next();
+            }
+        }
+        return null;
+    }
+
+    private static Counter fetches(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("employee.upstream.list.fetches")
+                .description("Full employee list fetches by whether the list had changed")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @AllArgsConstructor
+    private static class Validators {
+        private final String etag;
+        private final String lastModified;
+        private final long bodyHash;
+        private final int bodyLength;
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.rqchallenge.feignclient;
 
 import com.example.rqchallenge.model.*;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
-@FeignClient(value = "employee-client", url = "${employee.api.url}")
+@FeignClient(value = "employee-client", url = "${employee.api.url}", primary = false, qualifiers = EmployeeFeignClient.UPSTREAM,
+        configuration = EmployeeFeignConfiguration.class)
 public interface EmployeeFeignClient {
+    String UPSTREAM = "upstreamEmployeeFeignClient";
+
     @GetMapping("/employees")
     EmployeeList getAllEmployees();
 
+    //raw response so a 304 reaches the caller instead of the error decoder; the caller must close it
+    @GetMapping("/employees")
+    Response getAllEmployeesResponse(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince);
+
     @GetMapping("/employees/{id}")
     Employee getEmployeeById(@PathVariable("id") String id);
 
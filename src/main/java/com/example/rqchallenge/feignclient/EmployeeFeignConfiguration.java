@@ -0,0 +1,49 @@
+package com.example.rqchallenge.feignclient;
+
+import feign.Client;
+import feign.Request;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+import feign.okhttp.OkHttpClient;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for {@link EmployeeFeignClient} only. Deliberately not a {@code @Configuration}
+ * so component scanning does not apply it to every Feign client.
+ */
+public class EmployeeFeignConfiguration {
+
+    @Bean
+    public Decoder employeeDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                   ObjectProvider<HttpMessageConverterCustomizer> customizers,
+                                   EmployeeListReader employeeListReader) {
+        Decoder springDecoder = new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters, customizers)));
+        return new EmployeeListDecoder(springDecoder, employeeListReader);
+    }
+
+    @Bean
+    public ErrorDecoder employeeErrorDecoder() {
+        return new UpstreamErrorDecoder();
+    }
+
+    @Bean
+    public Request.Options employeeRequestOptions(UpstreamHttpProperties properties) {
+        return properties.defaultOptions();
+    }
+
+    @Bean
+    public Client employeeHttpClient(UpstreamHttpProperties properties, MeterRegistry meterRegistry) {
+        Client transport = properties.getTransport() == UpstreamHttpProperties.Transport.OKHTTP
+                ? new OkHttpClient(OkHttpTransport.create(properties, meterRegistry))
+                : new Client.Default(null, null);
+        return new PerMethodOptionsClient(transport, properties.optionsByMethod());
+    }
+}
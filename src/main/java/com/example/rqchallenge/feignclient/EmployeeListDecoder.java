@@ -0,0 +1,37 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.core.JsonParseException;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Decodes the upstream {@code /employees} payload with the streaming {@link EmployeeListReader}.
+ * Other types go to the delegate.
+ */
+public class EmployeeListDecoder implements Decoder {
+
+    private final Decoder delegate;
+    private final EmployeeListReader employeeListReader;
+
+    public EmployeeListDecoder(Decoder delegate, EmployeeListReader employeeListReader) {
+        this.delegate = delegate;
+        this.employeeListReader = employeeListReader;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (type != EmployeeList.class || response.body() == null) {
+            return delegate.decode(response, type);
+        }
+        try {
+            return employeeListReader.read(response.body().asInputStream());
+        } catch (JsonParseException e) {
+            throw new DecodeException(response.status(), e.getOriginalMessage(), response.request(), e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.model.EmployeeList;
+
+import java.util.Optional;
+
+/**
+ * Source of the full upstream employee list for the snapshot.
+ */
+public interface EmployeeListFetcher {
+
+    /**
+     * The current upstream list, or empty when it is known not to have changed since the last list this returned.
+     */
+    Optional<EmployeeList> fetchIfChanged();
+
+    /**
+     * Downloads and decodes the whole list on every call.
+     */
+    static EmployeeListFetcher unconditional(EmployeeFeignClient employeeFeignClient) {
+        return () -> Optional.of(Optional.ofNullable(employeeFeignClient.getAllEmployees()).orElseGet(EmployeeList::new));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads the upstream {@code /employees} payload with the Jackson streaming parser, one employee at a time,
+ * so neither the response body nor a JSON tree of it is ever held in memory. Employees are read by {@link EmployeeCodec}
+ * directly, without a data binding context per element.
+ */
+@Component
+public class EmployeeListReader {
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeCodec employeeCodec;
+    private final AtomicLong lastPayloadBytes = new AtomicLong();
+
+    public EmployeeListReader(ObjectMapper objectMapper, EmployeeCodec employeeCodec, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.employeeCodec = employeeCodec;
+        Gauge.builder("employee.upstream.payload", lastPayloadBytes, AtomicLong::get)
+                .description("Size of the last employee list payload read from the upstream")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public EmployeeList read(InputStream body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object for the employee list");
+            }
+            List<Employee> data = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        data.add(employeeCodec.read(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            lastPayloadBytes.set(parser.getCurrentLocation().getByteOffset());
+            EmployeeList employeeList = new EmployeeList();
+            employeeList.setData(data);
+            return employeeList;
+        }
+    }
+}
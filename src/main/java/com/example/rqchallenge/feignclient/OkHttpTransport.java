@@ -0,0 +1,51 @@
+package com.example.rqchallenge.feignclient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the pooled OkHttp client behind {@link EmployeeFeignClient}. Idle connections are kept alive for reuse and
+ * evicted after {@code keepAliveMs}; the number of connections in use is bounded by the callers, i.e. the rate
+ * governor and the executors. Pool state is exposed as {@code employee.upstream.pool.*} gauges and every new
+ * connection, including its TCP and TLS handshake, counts towards {@code employee.upstream.connections.opened}.
+ */
+public final class OkHttpTransport {
+
+    private OkHttpTransport() {
+    }
+
+    public static OkHttpClient create(UpstreamHttpProperties properties, MeterRegistry meterRegistry) {
+        ConnectionPool pool = new ConnectionPool(properties.getMaxIdleConnections(), properties.getKeepAliveMs(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(pool, "employee.upstream.pool", Tags.empty(), properties.getMaxIdleConnections())
+                .bindTo(meterRegistry);
+        Counter opened = Counter.builder("employee.upstream.connections.opened")
+                .description("Connections opened to the upstream, each paying a TCP and possibly a TLS handshake")
+                .register(meterRegistry);
+        return new OkHttpClient.Builder()
+                .connectionPool(pool)
+                .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                .protocols(properties.isHttp2() ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                //Feign's retryer and the rate governor decide about retries
+                .retryOnConnectionFailure(false)
+                .eventListener(new EventListener() {
+                    @Override
+                    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+                        opened.increment();
+                    }
+                })
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.rqchallenge.feignclient;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies connect and read timeouts configured for the calling client method, keyed by method name,
+ * before handing the request to the transport.
+ */
+public class PerMethodOptionsClient implements Client {
+
+    private final Client delegate;
+    private final Map<String, Request.Options> optionsByMethod;
+
+    public PerMethodOptionsClient(Client delegate, Map<String, Request.Options> optionsByMethod) {
+        this.delegate = delegate;
+        this.optionsByMethod = Map.copyOf(optionsByMethod);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        Request.Options methodOptions = metadata != null ? optionsByMethod.get(metadata.method().getName()) : null;
+        return delegate.execute(request, methodOptions != null ? methodOptions : options);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeInput;
+import com.example.rqchallenge.model.EmployeeList;
+import com.example.rqchallenge.model.EmployeeResponse;
+import com.example.rqchallenge.model.ResponseData;
+import feign.FeignException;
+import feign.Response;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Primary {@link EmployeeFeignClient} guarding the generated Feign client.
+ * Concurrent identical reads are collapsed into one upstream call, and every upstream call is paced and retried
+ * by the {@link UpstreamRateGovernor}. Writes are never coalesced since they are not idempotent.
+ * Each operation runs in its own {@link UpstreamIsolation} bulkhead, and each attempt passes its circuit breaker,
+ * so an open circuit also cuts a retry loop short.
+ * Every attempt that reaches the upstream is timed per method and outcome as {@code employee.upstream.calls}.
+ */
+@Component
+@Primary
+public class ResilientEmployeeFeignClient implements EmployeeFeignClient {
+
+    private static final UpstreamErrorDecoder RAW_ERRORS = new UpstreamErrorDecoder();
+
+    private final EmployeeFeignClient upstream;
+    private final UpstreamRateGovernor rateGovernor;
+    private final UpstreamIsolation isolation;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    public ResilientEmployeeFeignClient(@Qualifier(EmployeeFeignClient.UPSTREAM) EmployeeFeignClient upstream,
+                                        UpstreamRateGovernor rateGovernor, UpstreamIsolation isolation, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.rateGovernor = rateGovernor;
+        this.isolation = isolation;
+        this.meterRegistry = meterRegistry;
+        FunctionCounter.builder("employee.upstream.reads", singleFlight, SingleFlight::getCalls)
+                .description("Upstream reads requested by the service")
+                .register(meterRegistry);
+        FunctionCounter.builder("employee.upstream.reads.coalesced", singleFlight, SingleFlight::getCollapsed)
+                .description("Upstream reads served by sharing an identical in-flight call")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EmployeeList getAllEmployees() {
+        return singleFlight.execute("getAllEmployees",
+                () -> call("getAllEmployees", true, upstream::getAllEmployees));
+    }
+
+    //not coalesced since a raw body can only be read once; the snapshot refresh lock already serialises these
+    @Override
+    public Response getAllEmployeesResponse(String ifNoneMatch, String ifModifiedSince) {
+        return call("getAllEmployees", true, () -> successOrNotModified(upstream.getAllEmployeesResponse(ifNoneMatch, ifModifiedSince)));
+    }
+
+    @Override
+    public Employee getEmployeeById(String id) {
+        return singleFlight.execute("getEmployeeById:" + id,
+                () -> call("getEmployeeById", true, () -> upstream.getEmployeeById(id)));
+    }
+
+    @Override
+    public EmployeeResponse createEmployee(EmployeeInput employeeInput) {
+        return call("createEmployee", false, () -> upstream.createEmployee(employeeInput));
+    }
+
+    @Override
+    public ResponseData deleteEmployeeById(String id) {
+        return call("deleteEmployeeById", false, () -> upstream.deleteEmployeeById(id));
+    }
+
+    private <T> T call(String operation, boolean idempotent, Supplier<T> call) {
+        return isolation.withBulkhead(operation, () -> rateGovernor.execute(operation, idempotent,
+                () -> isolation.withCircuitBreaker(operation, () -> timed(operation, call))));
+    }
+
+    //raw responses skip Feign's error decoder, so turn error statuses into the same exceptions it would
+    private static Response successOrNotModified(Response response) {
+        if ((response.status() >= 200 && response.status() < 300) || response.status() == 304) {
+            return response;
+        }
+        try (response) {
+            throw RAW_ERRORS.decode("EmployeeFeignClient#getAllEmployeesResponse(String,String)", response);
+        }
+    }
+
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } catch (FeignException e) {
+            //a negative status means the request never got a response, e.g. connect or read timeout
+            outcome = e.status() < 0 ? "io_error" : String.valueOf(e.status());
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("employee.upstream.calls")
+                    .description("Latency of each call to the upstream employee API")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
+import feign.FeignException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for one upstream operation over a count-based window of its most recent calls.
+ * Server errors, I/O errors and slow calls count as failures; 4xx answers, including 429, prove the upstream is up.
+ * While open, calls fail fast with {@link UpstreamUnavailableException}; after the open period a few probes are let
+ * through and the circuit closes once they all succeed, or opens again on the first failure.
+ */
+public class UpstreamCircuitBreaker {
+
+    //ordered by severity, the ordinal is what the state gauge reports
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String operation;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+
+    //ring of the last window.length outcomes, true for a failure
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+    //bumped on every transition so calls admitted under an earlier state don't count towards the current one
+    private long generation;
+
+    public UpstreamCircuitBreaker(String operation, UpstreamIsolationProperties.Policy policy) {
+        this(operation, policy, System::nanoTime);
+    }
+
+    UpstreamCircuitBreaker(String operation, UpstreamIsolationProperties.Policy policy, LongSupplier nanoClock) {
+        this.operation = operation;
+        this.window = new boolean[policy.getWindowSize()];
+        this.minimumCalls = Math.min(policy.getMinimumCalls(), policy.getWindowSize());
+        this.failureRatePercent = policy.getFailureRatePercent();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallMs());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(policy.getOpenMs());
+        this.halfOpenProbes = policy.getHalfOpenProbes();
+        this.nanoClock = nanoClock;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        long admittedIn = acquire();
+        long start = nanoClock.getAsLong();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = nanoClock.getAsLong() - start > slowCallNanos;
+            return result;
+        } catch (FeignException e) {
+            failed = e.status() >= 500 || e.status() < 0;
+            throw e;
+        } finally {
+            record(admittedIn, failed);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized long acquire() {
+        if (state == State.OPEN) {
+            long remaining = openedAtNanos + openNanos - nanoClock.getAsLong();
+            if (remaining > 0) {
+                throw new UpstreamUnavailableException("Circuit for " + operation + " is open", TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                throw new UpstreamUnavailableException("Circuit for " + operation + " is half-open and probing", 0);
+            }
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    private synchronized void record(long admittedIn, boolean failed) {
+        if (admittedIn != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                transition(State.OPEN);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (recorded == window.length && window[next]) {
+            failures--;
+        }
+        window[next] = failed;
+        next = (next + 1) % window.length;
+        recorded = Math.min(recorded + 1, window.length);
+        if (failed) {
+            failures++;
+        }
+        if (recorded >= minimumCalls && failures * 100L >= (long) failureRatePercent * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State newState) {
+        state = newState;
+        generation++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        }
+        if (newState == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamNotFoundException;
+import com.example.rqchallenge.exception.UpstreamStatusException;
+import com.example.rqchallenge.exception.UpstreamTooManyRequestsException;
+import feign.FeignException;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns upstream error statuses into typed, stackless {@link FeignException}s classified by status code alone.
+ * The error body is never read and messages are built once per method and status, so an error costs the
+ * exception object and nothing more.
+ */
+public class UpstreamErrorDecoder implements ErrorDecoder {
+
+    private final Map<String, Map<Integer, String>> messages = new ConcurrentHashMap<>();
+
+    @Override
+    public FeignException decode(String methodKey, Response response) {
+        int status = response.status();
+        String message = messages.computeIfAbsent(methodKey, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, key -> "[" + status + "] during [" + methodKey + "]");
+        switch (status) {
+            case 404:
+                return new UpstreamNotFoundException(message, response.request(), response.headers());
+            case 429:
+                return new UpstreamTooManyRequestsException(message, response.request(), response.headers());
+            default:
+                return new UpstreamStatusException(status, message, response.request(), response.headers());
+        }
+    }
+}
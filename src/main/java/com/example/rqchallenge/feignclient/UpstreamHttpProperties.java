@@ -0,0 +1,56 @@
+package com.example.rqchallenge.feignclient;
+
+import feign.Request;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport settings for {@link EmployeeFeignClient}, bound from {@code employee.upstream.http.*}.
+ * Timeouts can be overridden per client method, e.g.
+ * {@code employee.upstream.http.methods.getAllEmployeesResponse.read-timeout-ms=15000}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "employee.upstream.http")
+public class UpstreamHttpProperties {
+
+    public enum Transport {
+        //pooled OkHttp client, HTTP/2 when the upstream negotiates it over TLS
+        OKHTTP,
+        //Feign's default HttpURLConnection client, kept as a fallback and a benchmark baseline
+        URL_CONNECTION
+    }
+
+    private Transport transport = Transport.OKHTTP;
+    private long connectTimeoutMs = 2000;
+    private long readTimeoutMs = 10000;
+    private int maxIdleConnections = 32;
+    private long keepAliveMs = 60000;
+    private boolean http2 = true;
+    private Map<String, MethodTimeouts> methods = new HashMap<>();
+
+    @Data
+    public static class MethodTimeouts {
+        //null falls back to the client wide value
+        private Long connectTimeoutMs;
+        private Long readTimeoutMs;
+    }
+
+    public Request.Options defaultOptions() {
+        return new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS, readTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+
+    public Map<String, Request.Options> optionsByMethod() {
+        Map<String, Request.Options> options = new HashMap<>();
+        methods.forEach((method, timeouts) -> options.put(method, new Request.Options(
+                timeouts.getConnectTimeoutMs() != null ? timeouts.getConnectTimeoutMs() : connectTimeoutMs, TimeUnit.MILLISECONDS,
+                timeouts.getReadTimeoutMs() != null ? timeouts.getReadTimeoutMs() : readTimeoutMs, TimeUnit.MILLISECONDS,
+                true)));
+        return options;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A bulkhead and a circuit breaker per upstream operation, so a slow or failing operation can only tie up its own
+ * share of threads and fails fast on its own, while the others keep going.
+ * State is published as {@code employee.upstream.circuit.state} (0 closed, 1 half-open, 2 open),
+ * {@code employee.upstream.bulkhead.available} and {@code employee.upstream.rejected} per operation and reason.
+ */
+@Component
+public class UpstreamIsolation {
+
+    private final UpstreamIsolationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public UpstreamIsolation(UpstreamIsolationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the call within the operation's bulkhead, i.e. counting any pacing and retries it does against the limit.
+     */
+    public <T> T withBulkhead(String operation, Supplier<T> call) {
+        Compartment compartment = compartment(operation);
+        boolean acquired;
+        try {
+            acquired = compartment.bulkhead.tryAcquire(compartment.maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            compartment.bulkheadFull.increment();
+            throw new UpstreamUnavailableException("Bulkhead for " + operation + " is full", 0);
+        }
+        try {
+            return call.get();
+        } finally {
+            compartment.bulkhead.release();
+        }
+    }
+
+    /**
+     * Runs one attempt of the call through the operation's circuit breaker.
+     */
+    public <T> T withCircuitBreaker(String operation, Supplier<T> call) {
+        Compartment compartment = compartment(operation);
+        try {
+            return compartment.circuitBreaker.execute(call);
+        } catch (UpstreamUnavailableException e) {
+            compartment.circuitOpen.increment();
+            throw e;
+        }
+    }
+
+    public UpstreamCircuitBreaker.State circuitState(String operation) {
+        return compartment(operation).circuitBreaker.getState();
+    }
+
+    private Compartment compartment(String operation) {
+        return compartments.computeIfAbsent(operation, this::newCompartment);
+    }
+
+    private Compartment newCompartment(String operation) {
+        UpstreamIsolationProperties.Policy policy = properties.policyFor(operation);
+        Compartment compartment = new Compartment(
+                new UpstreamCircuitBreaker(operation, policy),
+                new Semaphore(policy.getMaxConcurrent()),
+                policy.getMaxWaitMs(),
+                meterRegistry.counter("employee.upstream.rejected", "operation", operation, "reason", "circuit_open"),
+                meterRegistry.counter("employee.upstream.rejected", "operation", operation, "reason", "bulkhead_full"));
+        Gauge.builder("employee.upstream.circuit.state", compartment.circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit state of an upstream operation, 0 closed, 1 half-open, 2 open")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        Gauge.builder("employee.upstream.bulkhead.available", compartment.bulkhead, Semaphore::availablePermits)
+                .description("Calls an upstream operation may still start")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return compartment;
+    }
+
+    private static class Compartment {
+        final UpstreamCircuitBreaker circuitBreaker;
+        final Semaphore bulkhead;
+        final long maxWaitMillis;
+        final Counter circuitOpen;
+        final Counter bulkheadFull;
+
+        Compartment(UpstreamCircuitBreaker circuitBreaker, Semaphore bulkhead, long maxWaitMillis, Counter circuitOpen, Counter bulkheadFull) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.maxWaitMillis = maxWaitMillis;
+            this.circuitOpen = circuitOpen;
+            this.bulkheadFull = bulkheadFull;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.rqchallenge.feignclient;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker and bulkhead settings for each upstream operation, bound from {@code employee.upstream.isolation.*}.
+ * Anything not set for an operation, e.g. {@code employee.upstream.isolation.operations.getAllEmployees.max-concurrent=2},
+ * falls back to {@code employee.upstream.isolation.defaults.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "employee.upstream.isolation")
+public class UpstreamIsolationProperties {
+
+    private Policy defaults = Policy.defaults();
+    private Map<String, Policy> operations = new HashMap<>();
+
+    @Data
+    public static class Policy {
+        //bulkhead: calls in flight at once, and how long a caller may wait for one to finish
+        private Integer maxConcurrent;
+        private Long maxWaitMs;
+        //circuit breaker: the last window-size calls are kept, and once minimum-calls of them are in, the circuit
+        //opens when failure-rate-percent of them failed or took longer than slow-call-ms
+        private Integer windowSize;
+        private Integer minimumCalls;
+        private Integer failureRatePercent;
+        private Long slowCallMs;
+        //how long an open circuit fails fast before letting half-open-probes calls through to test the upstream
+        private Long openMs;
+        private Integer halfOpenProbes;
+
+        static Policy defaults() {
+            Policy policy = new Policy();
+            policy.setMaxConcurrent(10);
+            policy.setMaxWaitMs(50L);
+            policy.setWindowSize(20);
+            policy.setMinimumCalls(10);
+            policy.setFailureRatePercent(50);
+            policy.setSlowCallMs(10000L);
+            policy.setOpenMs(10000L);
+            policy.setHalfOpenProbes(2);
+            return policy;
+        }
+    }
+
+    public Policy policyFor(String operation) {
+        Policy override = operations.get(operation);
+        if (override == null) {
+            return defaults;
+        }
+        Policy policy = new Policy();
+        policy.setMaxConcurrent(or(override.getMaxConcurrent(), defaults.getMaxConcurrent()));
+        policy.setMaxWaitMs(or(override.getMaxWaitMs(), defaults.getMaxWaitMs()));
+        policy.setWindowSize(or(override.getWindowSize(), defaults.getWindowSize()));
+        policy.setMinimumCalls(or(override.getMinimumCalls(), defaults.getMinimumCalls()));
+        policy.setFailureRatePercent(or(override.getFailureRatePercent(), defaults.getFailureRatePercent()));
+        policy.setSlowCallMs(or(override.getSlowCallMs(), defaults.getSlowCallMs()));
+        policy.setOpenMs(or(override.getOpenMs(), defaults.getOpenMs()));
+        policy.setHalfOpenProbes(or(override.getHalfOpenProbes(), defaults.getHalfOpenProbes()));
+        return policy;
+    }
+
+    private static <T> T or(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
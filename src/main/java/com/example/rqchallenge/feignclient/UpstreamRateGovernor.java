@@ -0,0 +1,193 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamRateLimitedException;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Paces upstream calls at a learned rate and retries throttled or failed calls within a per-request deadline.
+ * The rate follows AIMD: every success adds a little, every 429 cuts it by a factor. Calls that cannot get a
+ * slot before their deadline are shed with {@link UpstreamRateLimitedException} instead of piling onto the upstream.
+ */
+@Component
+@Slf4j
+public class UpstreamRateGovernor {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    private final long deadlineMillis;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Counter throttled;
+    private final Counter retries;
+    private final Counter shed;
+    private final LongSupplier nanoClock;
+
+    private double rate;
+    private long nextFreeNanos = Long.MIN_VALUE;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+
+    @Autowired
+    public UpstreamRateGovernor(@Value("${employee.upstream.rate.initial-per-second:10}") double initialRate,
+                                @Value("${employee.upstream.rate.min-per-second:0.5}") double minRate,
+                                @Value("${employee.upstream.rate.max-per-second:100}") double maxRate,
+                                @Value("${employee.upstream.rate.additive-increase:0.2}") double additiveIncrease,
+                                @Value("${employee.upstream.rate.decrease-factor:0.5}") double decreaseFactor,
+                                @Value("${employee.upstream.retry.deadline-ms:5000}") long deadlineMillis,
+                                @Value("${employee.upstream.retry.base-backoff-ms:100}") long baseBackoffMillis,
+                                @Value("${employee.upstream.retry.max-backoff-ms:2000}") long maxBackoffMillis,
+                                MeterRegistry meterRegistry) {
+        this(initialRate, minRate, maxRate, additiveIncrease, decreaseFactor, deadlineMillis, baseBackoffMillis, maxBackoffMillis,
+                meterRegistry, System::nanoTime);
+    }
+
+    UpstreamRateGovernor(double initialRate, double minRate, double maxRate, double additiveIncrease, double decreaseFactor,
+                         long deadlineMillis, long baseBackoffMillis, long maxBackoffMillis, MeterRegistry meterRegistry,
+                         LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.rate = initialRate;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.additiveIncrease = additiveIncrease;
+        this.decreaseFactor = decreaseFactor;
+        this.deadlineMillis = deadlineMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.throttled = meterRegistry.counter("employee.upstream.throttled");
+        this.retries = meterRegistry.counter("employee.upstream.retries");
+        this.shed = meterRegistry.counter("employee.upstream.shed");
+        Gauge.builder("employee.upstream.rate", this, UpstreamRateGovernor::getRate)
+                .description("Learned upstream calls per second")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param idempotent whether the call may be repeated after a 5xx; a 429 is always retried since the upstream rejected it
+     */
+    public <T> T execute(String operation, boolean idempotent, Supplier<T> call) {
+        long deadline = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        FeignException lastFailure = null;
+        for (int attempt = 0; ; attempt++) {
+            long issuedAt;
+            try {
+                issuedAt = acquire(operation, deadline);
+            } catch (UpstreamRateLimitedException e) {
+                //a retry that can no longer be paced in before the deadline reports the failure it was retrying
+                if (lastFailure != null) {
+                    throw lastFailure;
+                }
+                throw e;
+            }
+            try {
+                T result = call.get();
+                onSuccess();
+                return result;
+            } catch (FeignException e) {
+                boolean tooManyRequests = e.status() == 429;
+                if (tooManyRequests) {
+                    onThrottled(issuedAt);
+                }
+                if (!(tooManyRequests || (idempotent && (e.status() >= 500 || e.status() < 0)))) {
+                    throw e;
+                }
+                long backoffNanos = backoffNanos(attempt, e);
+                if (nanoClock.getAsLong() + backoffNanos >= deadline) {
+                    throw e;
+                }
+                lastFailure = e;
+                retries.increment();
+                log.debug("Retrying {} after status {} in {} ms", operation, e.status(), TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+                sleep(backoffNanos);
+            }
+        }
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    private long acquire(String operation, long deadline) {
+        long start;
+        long waitNanos;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            start = Math.max(now, nextFreeNanos);
+            if (start >= deadline) {
+                shed.increment();
+                throw new UpstreamRateLimitedException("Shed " + operation + ", no upstream capacity before deadline");
+            }
+            nextFreeNanos = start + intervalNanos();
+            waitNanos = start - now;
+        }
+        sleep(waitNanos);
+        return start;
+    }
+
+    private synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + additiveIncrease);
+    }
+
+    //calls issued before the last decrease were paced at the old rate, so their 429s must not cut the rate again
+    private synchronized void onThrottled(long issuedAt) {
+        throttled.increment();
+        if (issuedAt < lastDecreaseNanos) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        rate = Math.max(minRate, rate * decreaseFactor);
+        lastDecreaseNanos = now;
+        nextFreeNanos = Math.max(nextFreeNanos, now + intervalNanos());
+    }
+
+    private long intervalNanos() {
+        return (long) (NANOS_PER_SECOND / rate);
+    }
+
+    //full jitter over an exponential ceiling, but never sooner than the upstream's Retry-After
+    private long backoffNanos(int attempt, FeignException e) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(backoff, retryAfterMillis(e)));
+    }
+
+    private static long retryAfterMillis(FeignException e) {
+        Collection<String> retryAfter = e.responseHeaders().get("Retry-After");
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.iterator().next().trim()));
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamRateLimitedException("Interrupted while waiting for upstream capacity");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.AgeBand;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.HistogramBucket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Top-K and distribution queries over the live rows of {@link EmployeeColumns}. Each one is a reduction: rows are
+ * folded into a small accumulator (a bounded heap, bucket counts) and partial results are combined, so large
+ * directories are split across the common fork-join pool and small ones are scanned on the calling thread.
+ */
+public final class EmployeeAnalytics {
+
+    //below this many rows a split costs more than it saves
+    static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    public enum Field {
+        SALARY, AGE;
+
+        int value(EmployeeColumns columns, int row) {
+            return this == SALARY ? columns.salary(row) : columns.age(row);
+        }
+    }
+
+    private EmployeeAnalytics() {
+    }
+
+    /**
+     * The k employees with the highest value of the field, highest first; ties keep the upstream order.
+     */
+    public static List<Employee> top(EmployeeColumns columns, Field field, int k) {
+        int limit = Math.min(Math.max(k, 0), columns.liveCount());
+        if (limit == 0) {
+            return List.of();
+        }
+        TopHeap heap = reduce(columns.livePositions(), () -> new TopHeap(limit),
+                (acc, row) -> acc.offer(field.value(columns, row), row), TopHeap::merge);
+        return columns.view(heap.rowsDescending());
+    }
+
+    /**
+     * Salary counts in equal-width buckets covering min to max, both inclusive. Fewer buckets come back when the
+     * range is narrower than the number asked for.
+     */
+    public static List<HistogramBucket> salaryHistogram(EmployeeColumns columns, int min, int max, int buckets) {
+        long width = Math.max(1, ((long) max - min + buckets) / buckets);
+        int used = (int) (((long) max - min) / width) + 1;
+        long[] counts = reduce(columns.livePositions(), () -> new long[used],
+                (acc, row) -> acc[(int) (((long) columns.salary(row) - min) / width)]++, EmployeeAnalytics::add);
+        List<HistogramBucket> histogram = new ArrayList<>(used);
+        for (int i = 0; i < used; i++) {
+            long from = min + i * width;
+            histogram.add(new HistogramBucket((int) from, (int) Math.min(from + width - 1, max), counts[i]));
+        }
+        return histogram;
+    }
+
+    /**
+     * Salary figures per age band of the given width, bands starting at multiples of it. Empty bands are left out.
+     */
+    public static List<AgeBand> ageBands(EmployeeColumns columns, int width) {
+        int[] rows = columns.livePositions();
+        if (rows.length == 0) {
+            return List.of();
+        }
+        int[] range = reduce(rows, () -> new int[]{Integer.MAX_VALUE, Integer.MIN_VALUE}, (acc, row) -> {
+            acc[0] = Math.min(acc[0], columns.age(row));
+            acc[1] = Math.max(acc[1], columns.age(row));
+        }, (left, right) -> new int[]{Math.min(left[0], right[0]), Math.max(left[1], right[1])});
+        int firstBand = Math.floorDiv(range[0], width);
+        int bandCount = Math.floorDiv(range[1], width) - firstBand + 1;
+        Bands bands = reduce(rows, () -> new Bands(bandCount),
+                (acc, row) -> acc.add(Math.floorDiv(columns.age(row), width) - firstBand, columns.salary(row)), Bands::merge);
+
+        List<AgeBand> result = new ArrayList<>();
+        for (int band = 0; band < bandCount; band++) {
+            if (bands.counts[band] > 0) {
+                long fromAge = (long) (firstBand + band) * width;
+                result.add(new AgeBand((int) fromAge, (int) (fromAge + width - 1), bands.counts[band],
+                        bands.minSalaries[band], bands.maxSalaries[band], (double) bands.sums[band] / bands.counts[band]));
+            }
+        }
+        return result;
+    }
+
+    static <A> A reduce(int[] rows, Supplier<A> identity, ObjIntConsumer<A> accumulator, BinaryOperator<A> combiner) {
+        Reduction<A> reduction = new Reduction<>(rows, 0, rows.length, identity, accumulator, combiner);
+        return rows.length <= SEQUENTIAL_THRESHOLD ? reduction.compute() : ForkJoinPool.commonPool().invoke(reduction);
+    }
+
+    private static long[] add(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    private static final class Reduction<A> extends RecursiveTask<A> {
+        private final int[] rows;
+        private final int from;
+        private final int to;
+        private final Supplier<A> identity;
+        private final ObjIntConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+
+        Reduction(int[] rows, int from, int to, Supplier<A> identity, ObjIntConsumer<A> accumulator, BinaryOperator<A> combiner) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                A acc = identity.get();
+                for (int i = from; i < to; i++) {
+                    accumulator.accept(acc, rows[i]);
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            Reduction<A> left = new Reduction<>(rows, from, mid, identity, accumulator, combiner);
+            left.fork();
+            A right = new Reduction<>(rows, mid, to, identity, accumulator, combiner).compute();
+            return combiner.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * Min-heap holding the k largest keys seen. A key packs the value above the inverted row, so comparing keys
+     * orders by value and then by earlier row, and merging partial heaps needs no extra tie-breaking.
+     */
+    static final class TopHeap {
+        private final long[] keys;
+        private int size;
+
+        TopHeap(int capacity) {
+            this.keys = new long[capacity];
+        }
+
+        void offer(int value, int row) {
+            long key = ((long) value << 32) | (Integer.MAX_VALUE - row);
+            if (size < keys.length) {
+                keys[size] = key;
+                siftUp(size++);
+            } else if (key > keys[0]) {
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        TopHeap merge(TopHeap other) {
+            for (int i = 0; i < other.size; i++) {
+                long key = other.keys[i];
+                offer((int) (key >> 32), Integer.MAX_VALUE - (int) key);
+            }
+            return this;
+        }
+
+        int[] rowsDescending() {
+            long[] sorted = Arrays.copyOf(keys, size);
+            Arrays.sort(sorted);
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = Integer.MAX_VALUE - (int) sorted[size - 1 - i];
+            }
+            return rows;
+        }
+
+        private void siftUp(int index) {
+            long key = keys[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[index] = keys[parent];
+                index = parent;
+            }
+            keys[index] = key;
+        }
+
+        private void siftDown(int index) {
+            long key = keys[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                keys[index] = keys[child];
+                index = child;
+            }
+            keys[index] = key;
+        }
+    }
+
+    private static final class Bands {
+        private final int[] counts;
+        private final long[] sums;
+        private final int[] minSalaries;
+        private final int[] maxSalaries;
+
+        Bands(int bandCount) {
+            counts = new int[bandCount];
+            sums = new long[bandCount];
+            minSalaries = new int[bandCount];
+            maxSalaries = new int[bandCount];
+            Arrays.fill(minSalaries, Integer.MAX_VALUE);
+            Arrays.fill(maxSalaries, Integer.MIN_VALUE);
+        }
+
+        void add(int band, int salary) {
+            counts[band]++;
+            sums[band] += salary;
+            minSalaries[band] = Math.min(minSalaries[band], salary);
+            maxSalaries[band] = Math.max(maxSalaries[band], salary);
+        }
+
+        Bands merge(Bands other) {
+            for (int band = 0; band < counts.length; band++) {
+                counts[band] += other.counts[band];
+                sums[band] += other.sums[band];
+                minSalaries[band] = Math.min(minSalaries[band], other.minSalaries[band]);
+                maxSalaries[band] = Math.max(maxSalaries[band], other.maxSalaries[band]);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * The employee directory as primitive columns, one row per employee: {@code int[]} ids, salaries and ages,
+ * UTF-8 packed names and dictionary-encoded profile images, which are almost always the same empty value.
+ * Indexes refer to employees by row position and {@link Employee} objects are only created as views when a
+ * result is handed out.
+ * <p>
+ * Rows are append-only: a removed employee keeps its position and is marked removed, so indexes built on earlier
+ * columns stay valid. {@link #compacted()} drops removed rows when the indexes are rebuilt anyway.
+ */
+public final class EmployeeColumns {
+
+    private final int size;
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final PackedStrings names;
+    private final List<String> imageDictionary;
+    //null while every row has the first dictionary entry
+    private final int[] imageCodes;
+    private final BitSet removed;
+    private final int removedCount;
+    private volatile int[] livePositions;
+
+    private EmployeeColumns(int size, int[] ids, int[] salaries, int[] ages, PackedStrings names,
+                            List<String> imageDictionary, int[] imageCodes, BitSet removed) {
+        this.size = size;
+        this.ids = ids;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.names = names;
+        this.imageDictionary = imageDictionary;
+        this.imageCodes = imageCodes;
+        this.removed = removed;
+        this.removedCount = removed.cardinality();
+    }
+
+    public static EmployeeColumns of(Collection<Employee> employees) {
+        return new EmployeeColumns(0, new int[0], new int[0], new int[0], PackedStrings.of(List.of()),
+                List.of(), null, new BitSet()).withAdded(employees);
+    }
+
+    public EmployeeColumns withAdded(Employee employee) {
+        return withAdded(List.of(employee));
+    }
+
+    public EmployeeColumns withAdded(Collection<Employee> employees) {
+        int newSize = size + employees.size();
+        int[] newIds = Arrays.copyOf(ids, newSize);
+        int[] newSalaries = Arrays.copyOf(salaries, newSize);
+        int[] newAges = Arrays.copyOf(ages, newSize);
+        List<String> newNames = new ArrayList<>(employees.size());
+        List<String> dictionary = new ArrayList<>(imageDictionary);
+        Map<String, Integer> codesByImage = new HashMap<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            codesByImage.put(dictionary.get(code), code);
+        }
+        int[] newImageCodes = imageCodes != null ? Arrays.copyOf(imageCodes, newSize) : null;
+
+        int row = size;
+        for (Employee employee : employees) {
+            newIds[row] = employee.getId();
+            newSalaries[row] = employee.getEmployee_salary();
+            newAges[row] = employee.getEmployee_age();
+            newNames.add(employee.getEmployee_name());
+            int code = codesByImage.computeIfAbsent(employee.getProfile_image(), image -> {
+                dictionary.add(image);
+                return dictionary.size() - 1;
+            });
+            if (newImageCodes == null && code > 0) {
+                //all earlier rows used entry 0, which is what a zero-filled code array already says
+                newImageCodes = new int[newSize];
+            }
+            if (newImageCodes != null) {
+                newImageCodes[row] = code;
+            }
+            row++;
+        }
+        return new EmployeeColumns(newSize, newIds, newSalaries, newAges, names.withAdded(newNames),
+                dictionary, newImageCodes, removed);
+    }
+
+    /**
+     * Marks every live row with the given id as removed, or returns this when there is none.
+     */
+    public EmployeeColumns withRemoved(int id) {
+        return withRemoved(rowId -> rowId == id);
+    }
+
+    public EmployeeColumns withRemoved(Set<Integer> removedIds) {
+        return withRemoved(removedIds::contains);
+    }
+
+    private EmployeeColumns withRemoved(IntPredicate idMatches) {
+        BitSet newRemoved = null;
+        for (int row = 0; row < size; row++) {
+            if (!removed.get(row) && idMatches.test(ids[row])) {
+                if (newRemoved == null) {
+                    newRemoved = (BitSet) removed.clone();
+                }
+                newRemoved.set(row);
+            }
+        }
+        return newRemoved == null ? this : new EmployeeColumns(size, ids, salaries, ages, names, imageDictionary, imageCodes, newRemoved);
+    }
+
+    public EmployeeColumns compacted() {
+        return removedCount == 0 ? this : of(liveView());
+    }
+
+    /**
+     * Rows including removed ones, i.e. one past the highest position.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int liveCount() {
+        return size - removedCount;
+    }
+
+    public boolean isRemoved(int row) {
+        return removed.get(row);
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int salary(int row) {
+        return salaries[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    public String profileImage(int row) {
+        return imageDictionary.get(imageCodes != null ? imageCodes[row] : 0);
+    }
+
+    /**
+     * Whether a row here and a row of other columns hold the same employee field for field, without decoding either.
+     */
+    public boolean sameEmployee(int row, EmployeeColumns other, int otherRow) {
+        return ids[row] == other.ids[otherRow]
+                && salaries[row] == other.salaries[otherRow]
+                && ages[row] == other.ages[otherRow]
+                && names.equals(row, other.names, otherRow)
+                && Objects.equals(profileImage(row), other.profileImage(otherRow));
+    }
+
+    PackedStrings names() {
+        return names;
+    }
+
+    public Employee employee(int row) {
+        return Employee.builder()
+                .id(ids[row])
+                .employee_name(names.get(row))
+                .employee_salary(salaries[row])
+                .employee_age(ages[row])
+                .profile_image(profileImage(row))
+                .build();
+    }
+
+    public int[] livePositions() {
+        int[] positions = livePositions;
+        if (positions == null) {
+            positions = new int[liveCount()];
+            for (int row = 0, i = 0; row < size; row++) {
+                if (!removed.get(row)) {
+                    positions[i++] = row;
+                }
+            }
+            livePositions = positions;
+        }
+        return positions;
+    }
+
+    /**
+     * Bytes {@link #writeTo(ByteBuffer)} needs; only live rows are written.
+     */
+    public long serializedSize() {
+        EmployeeColumns live = compacted();
+        long size = 4 + 12L * live.size + live.names.serializedSize() + 4 + 1;
+        for (String image : live.imageDictionary) {
+            size += 1 + 4 + (image != null ? image.getBytes(StandardCharsets.UTF_8).length : 0);
+        }
+        return size + (live.imageCodes != null ? 4L * live.size : 0);
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        EmployeeColumns live = compacted();
+        buffer.putInt(live.size);
+        for (int[] column : new int[][]{live.ids, live.salaries, live.ages}) {
+            buffer.asIntBuffer().put(column, 0, live.size);
+            buffer.position(buffer.position() + 4 * live.size);
+        }
+        live.names.writeTo(buffer);
+        buffer.putInt(live.imageDictionary.size());
+        for (String image : live.imageDictionary) {
+            byte[] bytes = image != null ? image.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            buffer.put((byte) (image != null ? 1 : 0));
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.put((byte) (live.imageCodes != null ? 1 : 0));
+        if (live.imageCodes != null) {
+            buffer.asIntBuffer().put(live.imageCodes, 0, live.size);
+            buffer.position(buffer.position() + 4 * live.size);
+        }
+    }
+
+    /**
+     * Reads columns written by {@link #writeTo(ByteBuffer)}, with bulk copies straight out of the buffer.
+     */
+    public static EmployeeColumns readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        int[][] columns = new int[3][size];
+        for (int[] column : columns) {
+            buffer.asIntBuffer().get(column);
+            buffer.position(buffer.position() + 4 * size);
+        }
+        PackedStrings names = PackedStrings.readFrom(buffer);
+        int dictionarySize = buffer.getInt();
+        List<String> dictionary = new ArrayList<>(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            boolean present = buffer.get() == 1;
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            dictionary.add(present ? new String(bytes, StandardCharsets.UTF_8) : null);
+        }
+        int[] imageCodes = null;
+        if (buffer.get() == 1) {
+            imageCodes = new int[size];
+            buffer.asIntBuffer().get(imageCodes);
+            buffer.position(buffer.position() + 4 * size);
+        }
+        return new EmployeeColumns(size, columns[0], columns[1], columns[2], names, dictionary, imageCodes, new BitSet());
+    }
+
+    /**
+     * Live employees in row order, created one at a time as the list is read.
+     */
+    public List<Employee> liveView() {
+        return removedCount == 0 ? new View(this, null, size) : view(livePositions());
+    }
+
+    public List<Employee> view(int[] positions) {
+        return new View(this, positions, positions.length);
+    }
+
+    private static final class View extends AbstractList<Employee> implements RandomAccess {
+        private final EmployeeColumns columns;
+        //null means position i is row i
+        private final int[] positions;
+        private final int size;
+
+        View(EmployeeColumns columns, int[] positions, int size) {
+            this.columns = columns;
+            this.positions = positions;
+            this.size = size;
+        }
+
+        @Override
+        public Employee get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return columns.employee(positions != null ? positions[index] : index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
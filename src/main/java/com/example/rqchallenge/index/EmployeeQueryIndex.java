@@ -0,0 +1,291 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Employee rows pre-sorted by each sortable field, so a page costs a walk over the sort order instead of a sort.
+ * When the sort field also carries a range filter, the walk starts and stops at that range via binary search.
+ * Ties are ordered by id, so every employee has one place in each order whatever its row; a page can then be resumed
+ * from the last employee it returned, and the orders are updated in place as employees are added and removed.
+ */
+public class EmployeeQueryIndex {
+
+    public enum SortKey {
+        SALARY, AGE, NAME, ID
+    }
+
+    /**
+     * The sort value and id of the last employee a page returned. Unlike a position it still marks where the page
+     * ended after employees are added or removed.
+     */
+    @Value
+    public static class Keyset {
+        SortKey sortKey;
+        //the sort field for SALARY, AGE and ID
+        int value;
+        //the sort field for NAME
+        String name;
+        int id;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Page {
+        private final List<Employee> items;
+        //where to resume after this page, or null once the walk is exhausted
+        private final Keyset next;
+    }
+
+    private final EmployeeColumns columns;
+    private final Map<SortKey, int[]> ascending;
+
+    private EmployeeQueryIndex(EmployeeColumns columns, Map<SortKey, int[]> ascending) {
+        this.columns = columns;
+        this.ascending = ascending;
+    }
+
+    public static EmployeeQueryIndex of(List<Employee> employees) {
+        return of(EmployeeColumns.of(employees));
+    }
+
+    public static EmployeeQueryIndex of(EmployeeColumns columns) {
+        int[] rows = columns.livePositions();
+        Map<SortKey, int[]> ascending = new EnumMap<>(SortKey.class);
+        for (SortKey sortKey : SortKey.values()) {
+            ascending.put(sortKey, sortedBy(columns, sortKey, rows));
+        }
+        return new EmployeeQueryIndex(columns, ascending);
+    }
+
+    /**
+     * @param skip  matching employees to skip before the page starts (offset paging)
+     * @param after where a previous page ended, or null to start from the beginning (cursor paging)
+     */
+    public Page query(SortKey sortKey, boolean descending, IntRange salary, IntRange age, int skip, Keyset after, int limit) {
+        int[] order = ascending.get(sortKey);
+        int from = 0;
+        int to = order.length;
+        if (sortKey == SortKey.SALARY) {
+            from = lowerBound(order, SortKey.SALARY, salary.getMin());
+            to = upperBound(order, SortKey.SALARY, salary.getMax());
+        } else if (sortKey == SortKey.AGE) {
+            from = lowerBound(order, SortKey.AGE, age.getMin());
+            to = upperBound(order, SortKey.AGE, age.getMax());
+        }
+
+        int step = descending ? -1 : 1;
+        int position = descending ? to - 1 : from;
+        if (after != null) {
+            position = descending ? Math.min(firstNotBefore(order, after) - 1, to - 1) : Math.max(firstAfter(order, after), from);
+        }
+
+        List<Employee> items = new ArrayList<>(Math.min(limit, Math.max(to - from, 0)));
+        int skipped = 0;
+        int lastRow = -1;
+        for (; position >= from && position < to; position += step) {
+            int row = order[position];
+            if (!salary.contains(columns.salary(row)) || !age.contains(columns.age(row))) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+            if (items.size() == limit) {
+                return new Page(items, keysetOf(sortKey, lastRow));
+            }
+            items.add(columns.employee(row));
+            lastRow = row;
+        }
+        return new Page(items, null);
+    }
+
+    /**
+     * @param updated these columns with one more row appended
+     */
+    public EmployeeQueryIndex withAdded(EmployeeColumns updated) {
+        int row = updated.size() - 1;
+        Map<SortKey, int[]> newAscending = new EnumMap<>(SortKey.class);
+        ascending.forEach((sortKey, order) -> {
+            int position = insertionPoint(updated, sortKey, order, row);
+            int[] inserted = new int[order.length + 1];
+            System.arraycopy(order, 0, inserted, 0, position);
+            inserted[position] = row;
+            System.arraycopy(order, position, inserted, position + 1, order.length - position);
+            newAscending.put(sortKey, inserted);
+        });
+        return new EmployeeQueryIndex(updated, newAscending);
+    }
+
+    /**
+     * @param updated these columns with some rows marked removed
+     */
+    public EmployeeQueryIndex withRemoved(EmployeeColumns updated) {
+        Map<SortKey, int[]> newAscending = new EnumMap<>(SortKey.class);
+        ascending.forEach((sortKey, order) -> {
+            int[] kept = new int[order.length];
+            int size = 0;
+            for (int row : order) {
+                if (!updated.isRemoved(row)) {
+                    kept[size++] = row;
+                }
+            }
+            newAscending.put(sortKey, size == order.length ? order : Arrays.copyOf(kept, size));
+        });
+        return new EmployeeQueryIndex(updated, newAscending);
+    }
+
+    private Keyset keysetOf(SortKey sortKey, int row) {
+        if (sortKey == SortKey.NAME) {
+            String name = columns.name(row);
+            return new Keyset(sortKey, 0, name != null ? name : "", columns.id(row));
+        }
+        return new Keyset(sortKey, valueOf(columns, sortKey, row), null, columns.id(row));
+    }
+
+    //value then row, packed into one long so a primitive sort does the work, then each run of equal values by id
+    private static int[] sortedBy(EmployeeColumns columns, SortKey sortKey, int[] rows) {
+        if (sortKey == SortKey.NAME) {
+            return Arrays.stream(rows).boxed()
+                    .sorted((left, right) -> compare(columns, sortKey, left, right))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        int[] sorted = sortedByKey(rows, row -> valueOf(columns, sortKey, row));
+        if (sortKey == SortKey.ID) {
+            return sorted;
+        }
+        for (int start = 0, end; start < sorted.length; start = end) {
+            int value = valueOf(columns, sortKey, sorted[start]);
+            end = start + 1;
+            while (end < sorted.length && valueOf(columns, sortKey, sorted[end]) == value) {
+                end++;
+            }
+            if (end - start > 1) {
+                int[] tied = sortedByKey(Arrays.copyOfRange(sorted, start, end), columns::id);
+                System.arraycopy(tied, 0, sorted, start, tied.length);
+            }
+        }
+        return sorted;
+    }
+
+    private static int[] sortedByKey(int[] rows, IntUnaryOperator key) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = ((long) key.applyAsInt(rows[i]) << 32) | rows[i];
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = (int) keys[i];
+        }
+        return sorted;
+    }
+
+    private static int valueOf(EmployeeColumns columns, SortKey sortKey, int row) {
+        switch (sortKey) {
+            case SALARY:
+                return columns.salary(row);
+            case AGE:
+                return columns.age(row);
+            default:
+                return columns.id(row);
+        }
+    }
+
+    private static int compare(EmployeeColumns columns, SortKey sortKey, int left, int right) {
+        int byValue = sortKey == SortKey.NAME
+                ? columns.names().compare(left, right)
+                : Integer.compare(valueOf(columns, sortKey, left), valueOf(columns, sortKey, right));
+        return byValue != 0 ? byValue : Integer.compare(columns.id(left), columns.id(right));
+    }
+
+    private int compare(int row, Keyset keyset) {
+        int byValue = keyset.getSortKey() == SortKey.NAME
+                ? columns.names().compare(row, keyset.getName().getBytes(StandardCharsets.UTF_8))
+                : Integer.compare(valueOf(columns, keyset.getSortKey(), row), keyset.getValue());
+        return byValue != 0 ? byValue : Integer.compare(columns.id(row), keyset.getId());
+    }
+
+    //first position that sorts after the row, so only an employee with the same value and id stays ahead of it
+    private static int insertionPoint(EmployeeColumns columns, SortKey sortKey, int[] order, int row) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(columns, sortKey, order[mid], row) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstAfter(int[] order, Keyset keyset) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(order[mid], keyset) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstNotBefore(int[] order, Keyset keyset) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(order[mid], keyset) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerBound(int[] order, SortKey sortKey, int value) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (valueOf(columns, sortKey, order[mid]) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(int[] order, SortKey sortKey, int value) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (valueOf(columns, sortKey, order[mid]) <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
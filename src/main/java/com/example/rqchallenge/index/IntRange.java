@@ -0,0 +1,22 @@
+package com.example.rqchallenge.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IntRange {
+
+    public static final IntRange ALL = new IntRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final int min;
+    private final int max;
+
+    public static IntRange of(Integer min, Integer max) {
+        return new IntRange(min != null ? min : Integer.MIN_VALUE, max != null ? max : Integer.MAX_VALUE);
+    }
+
+    public boolean contains(int value) {
+        return value >= min && value <= max;
+    }
+}
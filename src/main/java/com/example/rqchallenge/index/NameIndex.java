@@ -0,0 +1,229 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over employee names for substring and prefix lookups.
+ * Names are case folded char by char and kept UTF-8 packed, so a case-sensitive match is always also a folded match;
+ * candidates from the index are then verified against the packed name bytes without decoding them.
+ * Rows added after the index was built are kept in a small pending overlay that searches scan directly, so an add
+ * doesn't copy the postings; the overlay is merged by rebuilding once it reaches {@value #MAX_PENDING} rows.
+ * Results come back in dataset order.
+ */
+public class NameIndex {
+
+    private static final int GRAM = 3;
+    static final int MAX_PENDING = 1024;
+
+    private final EmployeeColumns columns;
+    //rows the postings and prefix order cover, the rest are pending
+    private final PackedStrings folded;
+    private final Map<Integer, int[]> postings;
+    private final int[] prefixOrder;
+    //folded names of rows folded.size() onwards
+    private final PackedStrings pending;
+
+    private NameIndex(EmployeeColumns columns, PackedStrings folded, Map<Integer, int[]> postings, int[] prefixOrder, PackedStrings pending) {
+        this.columns = columns;
+        this.folded = folded;
+        this.postings = postings;
+        this.prefixOrder = prefixOrder;
+        this.pending = pending;
+    }
+
+    public static NameIndex of(List<Employee> employees) {
+        return of(EmployeeColumns.of(employees));
+    }
+
+    public static NameIndex of(EmployeeColumns columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (int row = 0; row < columns.size(); row++) {
+            names.add(fold(nameOf(columns, row)));
+        }
+        PackedStrings folded = PackedStrings.of(names);
+        Map<Integer, Postings> grams = new HashMap<>();
+        for (int row = 0; row < folded.size(); row++) {
+            int length = folded.length(row);
+            for (int i = 0; i + GRAM <= length; i++) {
+                grams.computeIfAbsent(gramAt(folded, row, i), k -> new Postings()).add(row);
+            }
+        }
+        Map<Integer, int[]> postings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, rows) -> postings.put(gram, rows.toArray()));
+        return new NameIndex(columns, folded, postings, sortedByName(folded), PackedStrings.of(List.of()));
+    }
+
+    public List<Employee> search(String query, boolean ignoreCase, boolean prefix) {
+        byte[] foldedQuery = fold(query).getBytes(StandardCharsets.UTF_8);
+        byte[] needle = ignoreCase ? foldedQuery : query.getBytes(StandardCharsets.UTF_8);
+        PackedStrings haystack = ignoreCase ? folded : columns.names();
+        int[] candidates = prefix ? prefixCandidates(foldedQuery) : containsCandidates(foldedQuery);
+        int[] matches = new int[candidates.length + pending.size()];
+        int size = 0;
+        for (int row : candidates) {
+            if (!columns.isRemoved(row) && matches(haystack, row, needle, prefix)) {
+                matches[size++] = row;
+            }
+        }
+        //pending rows come after every indexed one, so dataset order holds
+        for (int i = 0; i < pending.size(); i++) {
+            int row = folded.size() + i;
+            if (!columns.isRemoved(row) && (ignoreCase ? matches(pending, i, needle, prefix) : matches(haystack, row, needle, prefix))) {
+                matches[size++] = row;
+            }
+        }
+        return columns.view(Arrays.copyOf(matches, size));
+    }
+
+    /**
+     * @param updated these columns with one more row appended
+     */
+    public NameIndex withAdded(EmployeeColumns updated) {
+        if (pending.size() + 1 >= MAX_PENDING) {
+            return of(updated);
+        }
+        PackedStrings newPending = pending.withAdded(List.of(fold(nameOf(updated, updated.size() - 1))));
+        return new NameIndex(updated, folded, postings, prefixOrder, newPending);
+    }
+
+    /**
+     * @param updated these columns with some rows marked removed, which searches then skip
+     */
+    public NameIndex withRemoved(EmployeeColumns updated) {
+        return new NameIndex(updated, folded, postings, prefixOrder, pending);
+    }
+
+    private int[] containsCandidates(byte[] foldedQuery) {
+        if (foldedQuery.length < GRAM) {
+            return allRows();
+        }
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= foldedQuery.length; i++) {
+            int[] rows = postings.get(gramOf(foldedQuery[i], foldedQuery[i + 1], foldedQuery[i + 2]));
+            if (rows == null) {
+                return new int[0];
+            }
+            lists.add(rows);
+        }
+        lists.sort(Comparator.comparingInt(rows -> rows.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private int[] prefixCandidates(byte[] foldedQuery) {
+        int from = lowerBound(folded, prefixOrder, foldedQuery);
+        int to = from;
+        while (to < prefixOrder.length && folded.startsWith(prefixOrder[to], foldedQuery)) {
+            to++;
+        }
+        int[] rows = Arrays.copyOfRange(prefixOrder, from, to);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    private int[] allRows() {
+        int[] rows = new int[folded.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    private static boolean matches(PackedStrings strings, int row, byte[] needle, boolean prefix) {
+        return prefix ? strings.startsWith(row, needle) : strings.contains(row, needle);
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[size++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int lowerBound(PackedStrings folded, int[] order, byte[] key) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (folded.compare(order[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedByName(PackedStrings folded) {
+        Integer[] order = new Integer[folded.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, folded::compare);
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int gramAt(PackedStrings strings, int row, int index) {
+        return (strings.byteAt(row, index) << 16) | (strings.byteAt(row, index + 1) << 8) | strings.byteAt(row, index + 2);
+    }
+
+    private static int gramOf(byte first, byte second, byte third) {
+        return ((first & 0xFF) << 16) | ((second & 0xFF) << 8) | (third & 0xFF);
+    }
+
+    private static String nameOf(EmployeeColumns columns, int row) {
+        String name = columns.name(row);
+        return name != null ? name : "";
+    }
+
+    static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    //positions are added in increasing order, so a repeated gram within one name only shows up as the last entry
+    private static class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
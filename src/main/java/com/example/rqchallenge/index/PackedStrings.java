@@ -0,0 +1,130 @@
+package com.example.rqchallenge.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable column of strings stored back to back as UTF-8 in one byte array, so a row costs its bytes plus an offset
+ * instead of a {@link String} and its backing array. Comparisons and matching work on the bytes directly;
+ * unsigned byte order is code point order.
+ */
+final class PackedStrings {
+
+    private final byte[] bytes;
+    //offsets[i] is where row i starts, offsets[size] is where the last row ends
+    private final int[] offsets;
+    private final BitSet nulls;
+    private final int size;
+
+    private PackedStrings(byte[] bytes, int[] offsets, BitSet nulls, int size) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    static PackedStrings of(List<String> values) {
+        return new PackedStrings(new byte[0], new int[1], new BitSet(), 0).withAdded(values);
+    }
+
+    PackedStrings withAdded(List<String> values) {
+        byte[][] encoded = new byte[values.size()][];
+        int added = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            String value = values.get(i);
+            encoded[i] = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            added += encoded[i].length;
+        }
+        int end = offsets[size];
+        byte[] newBytes = Arrays.copyOf(bytes, end + added);
+        int[] newOffsets = Arrays.copyOf(offsets, size + encoded.length + 1);
+        BitSet newNulls = (BitSet) nulls.clone();
+        for (int i = 0; i < encoded.length; i++) {
+            System.arraycopy(encoded[i], 0, newBytes, end, encoded[i].length);
+            end += encoded[i].length;
+            newOffsets[size + i + 1] = end;
+            if (values.get(i) == null) {
+                newNulls.set(size + i);
+            }
+        }
+        return new PackedStrings(newBytes, newOffsets, newNulls, size + encoded.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int row) {
+        return nulls.get(row) ? null : new String(bytes, offsets[row], length(row), StandardCharsets.UTF_8);
+    }
+
+    int length(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    int byteAt(int row, int index) {
+        return bytes[offsets[row] + index] & 0xFF;
+    }
+
+    boolean startsWith(int row, byte[] prefix) {
+        return prefix.length <= length(row) && regionMatches(offsets[row], prefix);
+    }
+
+    boolean contains(int row, byte[] needle) {
+        int last = offsets[row + 1] - needle.length;
+        for (int start = offsets[row]; start <= last; start++) {
+            if (regionMatches(start, needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int compare(int row, byte[] key) {
+        return Arrays.compareUnsigned(bytes, offsets[row], offsets[row + 1], key, 0, key.length);
+    }
+
+    int compare(int left, int right) {
+        return Arrays.compareUnsigned(bytes, offsets[left], offsets[left + 1], bytes, offsets[right], offsets[right + 1]);
+    }
+
+    boolean equals(int row, PackedStrings other, int otherRow) {
+        return nulls.get(row) == other.nulls.get(otherRow)
+                && Arrays.equals(bytes, offsets[row], offsets[row + 1], other.bytes, other.offsets[otherRow], other.offsets[otherRow + 1]);
+    }
+
+    long serializedSize() {
+        return 4 + 4L * (size + 1) + offsets[size] + 4 + 8L * nulls.toLongArray().length;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size);
+        buffer.asIntBuffer().put(offsets, 0, size + 1);
+        buffer.position(buffer.position() + 4 * (size + 1));
+        buffer.put(bytes, 0, offsets[size]);
+        long[] words = nulls.toLongArray();
+        buffer.putInt(words.length);
+        buffer.asLongBuffer().put(words);
+        buffer.position(buffer.position() + 8 * words.length);
+    }
+
+    static PackedStrings readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        int[] offsets = new int[size + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + 4 * (size + 1));
+        byte[] bytes = new byte[offsets[size]];
+        buffer.get(bytes);
+        long[] words = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + 8 * words.length);
+        return new PackedStrings(bytes, offsets, BitSet.valueOf(words), size);
+    }
+
+    private boolean regionMatches(int start, byte[] needle) {
+        return Arrays.equals(bytes, start, start + needle.length, needle, 0, needle.length);
+    }
+}
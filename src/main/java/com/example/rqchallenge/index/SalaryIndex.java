@@ -0,0 +1,129 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.SalaryStats;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Employee rows ordered by salary (highest first) together with running aggregates, built once per dataset version.
+ * Ties keep the upstream order, matching the stable sort the endpoints used before.
+ */
+public class SalaryIndex {
+
+    private final EmployeeColumns columns;
+    private final int[] bySalaryDesc;
+    private final long sum;
+
+    private SalaryIndex(EmployeeColumns columns, int[] bySalaryDesc, long sum) {
+        this.columns = columns;
+        this.bySalaryDesc = bySalaryDesc;
+        this.sum = sum;
+    }
+
+    public static SalaryIndex of(List<Employee> employees) {
+        return of(EmployeeColumns.of(employees));
+    }
+
+    public static SalaryIndex of(EmployeeColumns columns) {
+        int[] rows = columns.livePositions();
+        //salary descending then row ascending, packed into one long so a primitive sort keeps ties stable
+        long[] keys = new long[rows.length];
+        long sum = 0;
+        for (int i = 0; i < rows.length; i++) {
+            keys[i] = ((long) ~columns.salary(rows[i]) << 32) | rows[i];
+            sum += columns.salary(rows[i]);
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = (int) keys[i];
+        }
+        return new SalaryIndex(columns, sorted, sum);
+    }
+
+    public int size() {
+        return bySalaryDesc.length;
+    }
+
+    public OptionalInt max() {
+        return size() == 0 ? OptionalInt.empty() : OptionalInt.of(columns.salary(bySalaryDesc[0]));
+    }
+
+    public OptionalInt min() {
+        return size() == 0 ? OptionalInt.empty() : OptionalInt.of(columns.salary(bySalaryDesc[size() - 1]));
+    }
+
+    public List<Employee> top(int n) {
+        int limit = Math.min(Math.max(n, 0), size());
+        return columns.view(Arrays.copyOf(bySalaryDesc, limit));
+    }
+
+    /**
+     * Nearest-rank percentile, read straight off the sorted rows.
+     *
+     * @param p in (0, 100]
+     */
+    public OptionalInt percentile(double p) {
+        if (size() == 0) {
+            return OptionalInt.empty();
+        }
+        int rank = (int) Math.min(size(), Math.max(1, (long) Math.ceil(p / 100 * size())));
+        return OptionalInt.of(columns.salary(bySalaryDesc[size() - rank]));
+    }
+
+    public SalaryStats stats() {
+        if (size() == 0) {
+            return new SalaryStats(0, 0, 0, 0, 0);
+        }
+        return new SalaryStats(size(), min().getAsInt(), max().getAsInt(), sum, (double) sum / size());
+    }
+
+    /**
+     * @param updated these columns with one more row appended
+     */
+    public SalaryIndex withAdded(EmployeeColumns updated) {
+        int row = updated.size() - 1;
+        int salary = updated.salary(row);
+        int position = upperBound(salary);
+        int[] sorted = new int[size() + 1];
+        System.arraycopy(bySalaryDesc, 0, sorted, 0, position);
+        sorted[position] = row;
+        System.arraycopy(bySalaryDesc, position, sorted, position + 1, size() - position);
+        return new SalaryIndex(updated, sorted, sum + salary);
+    }
+
+    /**
+     * @param updated these columns with some rows marked removed
+     */
+    public SalaryIndex withRemoved(EmployeeColumns updated) {
+        int[] sorted = new int[size()];
+        int kept = 0;
+        long newSum = sum;
+        for (int row : bySalaryDesc) {
+            if (updated.isRemoved(row)) {
+                newSum -= updated.salary(row);
+            } else {
+                sorted[kept++] = row;
+            }
+        }
+        return new SalaryIndex(updated, kept == size() ? bySalaryDesc : Arrays.copyOf(sorted, kept), newSum);
+    }
+
+    //first position whose salary is strictly lower, so a new employee lands after existing ties
+    private int upperBound(int salary) {
+        int low = 0;
+        int high = bySalaryDesc.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (columns.salary(bySalaryDesc[mid]) >= salary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
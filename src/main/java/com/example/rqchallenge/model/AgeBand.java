@@ -0,0 +1,18 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgeBand {
+    //inclusive bounds
+    private int fromAge;
+    private int toAge;
+    private int count;
+    private int minSalary;
+    private int maxSalary;
+    private double meanSalary;
+}
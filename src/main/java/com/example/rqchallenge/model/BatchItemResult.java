@@ -0,0 +1,19 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private String id;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        SUCCESS, FAILED, RATE_LIMITED, NOT_ATTEMPTED
+    }
+}
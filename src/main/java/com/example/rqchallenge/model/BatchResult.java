@@ -0,0 +1,18 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+    private int succeeded;
+    private int failed;
+    private int rateLimited;
+    private int notAttempted;
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,15 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePage {
+    private List<Employee> items;
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.example.rqchallenge.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+
+@Data
+@NoArgsConstructor
+public class EmployeeQuery {
+    @Pattern(regexp = "^(salary|age|name|id)$", message = "sort should be one of salary, age, name, id")
+    private String sort = "id";
+    @Pattern(regexp = "^(asc|desc)$", message = "order should be asc or desc")
+    private String order = "asc";
+    private Integer minSalary;
+    private Integer maxSalary;
+    private Integer minAge;
+    private Integer maxAge;
+    @Min(value = 0, message = "offset can't be negative")
+    private int offset = 0;
+    @Min(value = 1, message = "limit should be at least 1")
+    @Max(value = 1000, message = "limit can't be more than 1000")
+    private int limit = 50;
+    private String cursor;
+}
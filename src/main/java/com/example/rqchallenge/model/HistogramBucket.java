@@ -0,0 +1,15 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBucket {
+    //inclusive bounds
+    private int from;
+    private int to;
+    private long count;
+}
@@ -0,0 +1,16 @@
+package com.example.rqchallenge.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalaryStats {
+    private int count;
+    private int min;
+    private int max;
+    private long sum;
+    private double mean;
+}
@@ -0,0 +1,48 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.cache.FrequencySketch;
+import com.example.rqchallenge.cache.SearchTerm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Which ids {@code getEmployeeById} and which searches {@code getEmployeesByNameSearch} are asked for most lately,
+ * kept in bounded {@link FrequencySketch}es so recording stays cheap however many distinct keys arrive.
+ */
+@Component
+public class EmployeeAccessLog {
+
+    private final boolean enabled;
+    private final FrequencySketch<String> ids;
+    private final FrequencySketch<SearchTerm> searches;
+
+    public EmployeeAccessLog(@Value("${employee.warmup.enabled:true}") boolean enabled,
+                             @Value("${employee.warmup.sketch-width:4096}") int sketchWidth,
+                             @Value("${employee.warmup.tracked-keys:1000}") int trackedKeys) {
+        this.enabled = enabled;
+        this.ids = new FrequencySketch<>(sketchWidth, trackedKeys);
+        this.searches = new FrequencySketch<>(sketchWidth, trackedKeys);
+    }
+
+    public void requested(String id) {
+        if (enabled) {
+            ids.record(id);
+        }
+    }
+
+    public void searched(SearchTerm term) {
+        if (enabled) {
+            searches.record(term);
+        }
+    }
+
+    public List<String> hottestIds(int limit) {
+        return ids.hottest(limit);
+    }
+
+    public List<SearchTerm> hottestSearches(int limit) {
+        return searches.hottest(limit);
+    }
+}
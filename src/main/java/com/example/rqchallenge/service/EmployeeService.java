@@ -1,15 +1,40 @@
 package com.example.rqchallenge.service;
 
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.cache.EmployeeIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.SearchTerm;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.config.AsyncConfig;
 import com.example.rqchallenge.exception.EmployeeNotFoundException;
 import com.example.rqchallenge.exception.GenericException;
+import com.example.rqchallenge.exception.InvalidCursorException;
+import com.example.rqchallenge.exception.UpstreamRateLimitedException;
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
 import com.example.rqchallenge.model.*;
 import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.index.EmployeeAnalytics;
+import com.example.rqchallenge.index.EmployeeQueryIndex;
+import com.example.rqchallenge.index.IntRange;
+import com.example.rqchallenge.index.SalaryIndex;
 import com.example.rqchallenge.util.Constants;
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,9 +44,45 @@ public class EmployeeService {
     @Autowired
     public EmployeeFeignClient employeeFeignClient;
 
+    @Autowired
+    public EmployeeSnapshot employeeSnapshot;
+
+    @Autowired
+    public EmployeeIdCache employeeIdCache;
+
+    @Autowired
+    public SharedTier sharedTier;
+
+    @Autowired
+    public EmployeeAccessLog employeeAccessLog;
+
+    @Autowired
+    @Qualifier(AsyncConfig.BATCH_EXECUTOR)
+    public TaskExecutor batchExecutor;
+
+    @Value("${employee.batch.deadline-ms:20000}")
+    public long batchDeadlineMillis = 20000;
+
+    //single lookups cached before a refresh must not outlive the upstream change the refresh found
+    @PostConstruct
+    public void invalidateChangedEmployees() {
+        employeeSnapshot.addChangeListener(diff -> diff.ids().forEach(id -> employeeIdCache.invalidate(String.valueOf(id))));
+    }
+
+    /**
+     * The dataset reads are answered from; pass it to the overloads below to get several answers from one version.
+     */
+    public EmployeeDataset currentDataset() {
+        return employeeSnapshot.get();
+    }
+
     public List<Employee> getAllEmployees() throws EmployeeNotFoundException {
-        List<Employee> allEmployee = fetchAllEmployees();
-        log.info("getAllEmployees = {}", allEmployee);
+        return getAllEmployees(currentDataset());
+    }
+
+    public List<Employee> getAllEmployees(EmployeeDataset dataset) throws EmployeeNotFoundException {
+        List<Employee> allEmployee = dataset.getEmployees();
+        log.info("getAllEmployees size = {}", allEmployee.size());
         if (allEmployee.isEmpty()) {
             //handle custom exception to return status code as 404
             throw new EmployeeNotFoundException(Constants.STATUS_404);
@@ -30,70 +91,333 @@ public class EmployeeService {
     }
 
     public List<Employee> fetchAllEmployees() {
-        EmployeeList allEmployee = employeeFeignClient.getAllEmployees();
-        log.info("fetchAllEmployees = {}", allEmployee);
-        return allEmployee != null ? allEmployee.getData() : new ArrayList<>();
+        return employeeSnapshot.get().getEmployees();
     }
 
 
     public List<Employee> getEmployeesByNameSearch(String searchString) throws EmployeeNotFoundException {
-        List<Employee> allEmployee = fetchAllEmployees();
-        List<Employee> filteredList = allEmployee.stream().filter(e -> e.getEmployee_name().contains(searchString)).collect(Collectors.toList());
-        log.info("filteredList = {}", filteredList);
+        return getEmployeesByNameSearch(searchString, false, false, 0, null);
+    }
+
+    public List<Employee> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean prefix, int page, Integer size) throws EmployeeNotFoundException {
+        SearchTerm term = new SearchTerm(searchString, ignoreCase, prefix);
+        employeeAccessLog.searched(term);
+        List<Employee> filteredList = employeeSnapshot.get().search(term);
+        log.info("getEmployeesByNameSearch term = {}, matches = {}", term, filteredList.size());
 
         if (filteredList.isEmpty()) {
             //handle custom exception to return status code as 404
             throw new EmployeeNotFoundException(Constants.STATUS_404);
         }
-        return filteredList;
+        if (size == null) {
+            return filteredList;
+        }
+        int from = (int) Math.min((long) page * size, filteredList.size());
+        int to = (int) Math.min((long) from + size, filteredList.size());
+        return filteredList.subList(from, to);
     }
 
 
     public Employee getEmployeeById(String id) throws EmployeeNotFoundException {
-
-        Employee employee = employeeFeignClient.getEmployeeById(id);
+        employeeAccessLog.requested(id);
+        Optional<Employee> employee = employeeIdCache.get(id, this::loadEmployeeById);
         log.info("Employee found = {}", employee);
-        if (employee == null) {
+        if (employee.isEmpty()) {
             //handle custom exception to return status code as 404
             throw new EmployeeNotFoundException(Constants.STATUS_404);
         }
-        return employee;
+        return employee.get();
+    }
+
+    /**
+     * Puts the employee in the id cache ahead of requests, answered the way a request would be. For an id only the
+     * upstream can answer, {@code mayAskUpstream} is asked first.
+     *
+     * @return whether the id was cached
+     */
+    public boolean warmEmployeeById(String id, BooleanSupplier mayAskUpstream) {
+        Optional<Optional<Employee>> known = findWithoutUpstream(id);
+        if (known.isPresent()) {
+            employeeIdCache.put(id, known.get());
+            return true;
+        }
+        if (!mayAskUpstream.getAsBoolean()) {
+            return false;
+        }
+        employeeIdCache.put(id, fetchEmployeeById(id));
+        return true;
+    }
+
+    private Optional<Employee> loadEmployeeById(String id) {
+        Optional<Optional<Employee>> known = findWithoutUpstream(id);
+        return known.isPresent() ? known.get() : fetchEmployeeById(id);
+    }
+
+    private Optional<Optional<Employee>> findWithoutUpstream(String id) {
+        //a fresh full-list snapshot already holds the employee, but its absence there is not proof of a 404
+        OptionalInt numericId = parseInt(id);
+        if (numericId.isPresent()) {
+            Optional<Employee> fromSnapshot = employeeSnapshot.peek().flatMap(dataset -> dataset.findById(numericId.getAsInt()));
+            if (fromSnapshot.isPresent()) {
+                return Optional.of(fromSnapshot);
+            }
+            //a write made here stands until the upstream list reflects it, even if the upstream didn't keep it
+            Optional<Optional<Employee>> written = employeeSnapshot.localWrite(numericId.getAsInt());
+            if (written.isPresent()) {
+                return written;
+            }
+        }
+        //another replica may already have asked the upstream
+        return sharedTier.lookup(id);
+    }
+
+    private Optional<Employee> fetchEmployeeById(String id) {
+        OptionalInt numericId = parseInt(id);
+        try {
+            Optional<Employee> employee = Optional.ofNullable(employeeFeignClient.getEmployeeById(id));
+            sharedTier.share(id, employee);
+            return employee;
+        } catch (FeignException.NotFound e) {
+            sharedTier.share(id, Optional.empty());
+            return Optional.empty();
+        } catch (UpstreamUnavailableException | UpstreamRateLimitedException e) {
+            return staleOrThrow(id, numericId, e);
+        } catch (FeignException e) {
+            //a 429 or 5xx left once the retries are spent says as little about the employee as an open circuit
+            if (e.status() == 429 || e.status() >= 500) {
+                return staleOrThrow(id, numericId, e);
+            }
+            throw e;
+        }
+    }
+
+    //with the upstream cut off or throttling, a stale snapshot's copy beats failing; its absence still can't prove a 404
+    private Optional<Employee> staleOrThrow(String id, OptionalInt numericId, RuntimeException e) {
+        Optional<Employee> fallback = numericId.isPresent()
+                ? employeeSnapshot.peekStale().flatMap(dataset -> dataset.findById(numericId.getAsInt()))
+                : Optional.empty();
+        if (fallback.isEmpty()) {
+            throw e;
+        }
+        log.warn("Serving employee {} from stale snapshot = {}", id, e.getMessage());
+        return fallback;
     }
 
     public Integer getHighestSalaryOfEmployees() throws EmployeeNotFoundException {
-        List<Employee> allEmployee = fetchAllEmployees();
-        Optional<Employee> highestSalary = allEmployee.stream().max(Comparator.comparingInt(Employee::getEmployee_salary));
+        return getHighestSalaryOfEmployees(currentDataset());
+    }
+
+    public Integer getHighestSalaryOfEmployees(EmployeeDataset dataset) throws EmployeeNotFoundException {
+        OptionalInt highestSalary = dataset.getSalaryIndex().max();
         log.info("highestSalary = {}", highestSalary);
 
         if (highestSalary.isEmpty()) {
             //handle custom exception to return status code as 404
             throw new EmployeeNotFoundException(Constants.STATUS_404);
         }
-        return highestSalary.get().getEmployee_salary();
+        return highestSalary.getAsInt();
     }
 
     public List<String> getTopTenHighestEarningEmployeeNames() throws EmployeeNotFoundException {
-        List<Employee> allEmployee = fetchAllEmployees();
+        return getTopTenHighestEarningEmployeeNames(currentDataset());
+    }
 
-        List<String> highestSalaryEmployeeNames = allEmployee.stream()
-                .sorted(Collections.reverseOrder(Comparator.comparingInt(Employee::getEmployee_salary)))
-                .map(Employee::getEmployee_name).limit(10).collect(Collectors.toList());
+    public List<String> getTopTenHighestEarningEmployeeNames(EmployeeDataset dataset) throws EmployeeNotFoundException {
+        List<String> highestSalaryEmployeeNames = getTopEarners(dataset, 10).stream()
+                .map(Employee::getEmployee_name).collect(Collectors.toList());
 
         log.info("highestSalaryEmployeeNames = {}", highestSalaryEmployeeNames);
+        return highestSalaryEmployeeNames;
+    }
 
-        if (highestSalaryEmployeeNames.isEmpty()) {
+    public List<Employee> getTopEarners(int n) throws EmployeeNotFoundException {
+        return getTopEarners(currentDataset(), n);
+    }
+
+    private List<Employee> getTopEarners(EmployeeDataset dataset, int n) throws EmployeeNotFoundException {
+        List<Employee> topEarners = dataset.getSalaryIndex().top(n);
+
+        if (topEarners.isEmpty()) {
             //handle custom exception to return status code as 404
             throw new EmployeeNotFoundException(Constants.STATUS_404);
         }
-        return highestSalaryEmployeeNames;
+        return topEarners;
+    }
+
+    public SalaryStats getSalaryStats() throws EmployeeNotFoundException {
+        SalaryIndex salaryIndex = employeeSnapshot.get().getSalaryIndex();
+
+        if (salaryIndex.size() == 0) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        return salaryIndex.stats();
     }
 
+    public List<Employee> getTopEmployees(String by, int k) throws EmployeeNotFoundException {
+        EmployeeDataset dataset = employeeSnapshot.get();
+        EmployeeAnalytics.Field field = EmployeeAnalytics.Field.valueOf(by.toUpperCase(Locale.ROOT));
+        //salary order is already kept by the index, any other field goes through a bounded heap
+        List<Employee> top = field == EmployeeAnalytics.Field.SALARY
+                ? dataset.getSalaryIndex().top(k)
+                : EmployeeAnalytics.top(dataset.getColumns(), field, k);
+
+        if (top.isEmpty()) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        return top;
+    }
+
+    public Map<String, Integer> getSalaryPercentiles(List<Double> percentiles) throws EmployeeNotFoundException {
+        SalaryIndex salaryIndex = employeeSnapshot.get().getSalaryIndex();
+
+        if (salaryIndex.size() == 0) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        Map<String, Integer> salaries = new LinkedHashMap<>();
+        for (double p : percentiles) {
+            salaries.put("p" + BigDecimal.valueOf(p).stripTrailingZeros().toPlainString(), salaryIndex.percentile(p).getAsInt());
+        }
+        return salaries;
+    }
+
+    public List<HistogramBucket> getSalaryHistogram(int buckets) throws EmployeeNotFoundException {
+        EmployeeDataset dataset = employeeSnapshot.get();
+        SalaryIndex salaryIndex = dataset.getSalaryIndex();
+
+        if (salaryIndex.size() == 0) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        return EmployeeAnalytics.salaryHistogram(dataset.getColumns(), salaryIndex.min().getAsInt(), salaryIndex.max().getAsInt(), buckets);
+    }
+
+    public List<AgeBand> getAgeBands(int width) throws EmployeeNotFoundException {
+        EmployeeDataset dataset = employeeSnapshot.get();
+
+        if (dataset.isEmpty()) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        return EmployeeAnalytics.ageBands(dataset.getColumns(), width);
+    }
+
+    public EmployeePage queryEmployees(EmployeeQuery query) throws EmployeeNotFoundException, InvalidCursorException {
+        EmployeeDataset dataset = employeeSnapshot.get();
+        if (dataset.isEmpty()) {
+            //handle custom exception to return status code as 404
+            throw new EmployeeNotFoundException(Constants.STATUS_404);
+        }
+        EmployeeQueryIndex.SortKey sortKey = EmployeeQueryIndex.SortKey.valueOf(query.getSort().toUpperCase(Locale.ROOT));
+        EmployeeQueryIndex.Keyset after = query.getCursor() != null ? parseCursor(query.getCursor(), sortKey) : null;
+        EmployeeQueryIndex.Page page = dataset.getQueryIndex().query(
+                sortKey,
+                "desc".equals(query.getOrder()),
+                IntRange.of(query.getMinSalary(), query.getMaxSalary()),
+                IntRange.of(query.getMinAge(), query.getMaxAge()),
+                after != null ? 0 : query.getOffset(), after, query.getLimit());
+        String nextCursor = page.getNext() != null ? cursorOf(page.getNext()) : null;
+        log.info("queryEmployees = {}, page size = {}", query, page.getItems().size());
+        return new EmployeePage(page.getItems(), nextCursor);
+    }
+
+    //a cursor is the sort value and id the previous page ended at, so it stays valid across dataset versions
+    private static String cursorOf(EmployeeQueryIndex.Keyset next) {
+        String value = next.getSortKey() == EmployeeQueryIndex.SortKey.NAME ? next.getName() : String.valueOf(next.getValue());
+        String cursor = next.getSortKey() + "\n" + next.getId() + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EmployeeQueryIndex.Keyset parseCursor(String cursor, EmployeeQueryIndex.SortKey sortKey) throws InvalidCursorException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+            if (parts.length == 3 && parts[0].equals(sortKey.name())) {
+                int id = Integer.parseInt(parts[1]);
+                return sortKey == EmployeeQueryIndex.SortKey.NAME
+                        ? new EmployeeQueryIndex.Keyset(sortKey, 0, parts[2], id)
+                        : new EmployeeQueryIndex.Keyset(sortKey, Integer.parseInt(parts[2]), null, id);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor " + cursor);
+        }
+        throw new InvalidCursorException("Cursor " + cursor + " was issued for another sort, restart the query");
+    }
 
     public EmployeeResponse createEmployee(EmployeeInput employeeInput) throws GenericException {
+        EmployeeResponse newEmployee = createUpstream(employeeInput);
+        //createUpstream has already cached and shared the employee
+        toEmployee(newEmployee.getData()).ifPresent(employeeSnapshot::applyCreated);
+        return newEmployee;
+    }
+
+    public String deleteEmployeeById(String id) throws GenericException {
+        String message = deleteUpstream(id);
+        parseInt(id).ifPresent(employeeSnapshot::applyDeleted);
+        employeeIdCache.invalidate(id);
+        sharedTier.forget(id);
+        return message;
+    }
+
+    /**
+     * Creates every employee with at most {@code employee.batch.concurrency} upstream calls in flight.
+     * A failed item does not stop the others, and each created employee reaches the snapshot as soon as it is created.
+     * Items still queued once {@code employee.batch.deadline-ms} has passed are not sent and come back NOT_ATTEMPTED,
+     * so the caller gets every item's outcome in time and can resend just those.
+     */
+    public CompletableFuture<BatchResult> createEmployees(List<EmployeeInput> employeeInputs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDeadlineMillis);
+        List<CompletableFuture<BatchItemResult>> items = new ArrayList<>(employeeInputs.size());
+        for (int i = 0; i < employeeInputs.size(); i++) {
+            int index = i;
+            EmployeeInput employeeInput = employeeInputs.get(i);
+            items.add(batchItem(index, employeeInput.getId(), deadline, () -> {
+                EmployeeResponse newEmployee = createUpstream(employeeInput);
+                Optional<Employee> employee = toEmployee(newEmployee.getData());
+                employee.ifPresent(employeeSnapshot::applyCreated);
+                String id = employee.map(e -> String.valueOf(e.getId())).orElse(employeeInput.getId());
+                return new BatchItemResult(index, id, BatchItemResult.Status.SUCCESS, newEmployee.getMessage());
+            }));
+        }
+        return collect(items).thenApply(result -> {
+            log.info("Batch create of {} employees, succeeded = {}, failed = {}, rateLimited = {}, notAttempted = {}",
+                    employeeInputs.size(), result.getSucceeded(), result.getFailed(), result.getRateLimited(), result.getNotAttempted());
+            return result;
+        });
+    }
+
+    public CompletableFuture<BatchResult> deleteEmployeesById(List<String> ids) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDeadlineMillis);
+        List<CompletableFuture<BatchItemResult>> items = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int index = i;
+            String id = ids.get(i);
+            items.add(batchItem(index, id, deadline, () -> {
+                String message = deleteUpstream(id);
+                //the snapshot goes first so a concurrent lookup can't re-cache a deleted employee from it
+                parseInt(id).ifPresent(employeeSnapshot::applyDeleted);
+                employeeIdCache.invalidate(id);
+                sharedTier.forget(id);
+                return new BatchItemResult(index, id, BatchItemResult.Status.SUCCESS, message);
+            }));
+        }
+        return collect(items).thenApply(result -> {
+            log.info("Batch delete of {} employees, succeeded = {}, failed = {}, rateLimited = {}, notAttempted = {}",
+                    ids.size(), result.getSucceeded(), result.getFailed(), result.getRateLimited(), result.getNotAttempted());
+            return result;
+        });
+    }
+
+    private EmployeeResponse createUpstream(EmployeeInput employeeInput) throws GenericException {
         EmployeeResponse newEmployee = employeeFeignClient.createEmployee(employeeInput);
         if (newEmployee != null) {
             if (newEmployee.getStatus().equals("success")) {
                 log.info("Newly created employee = {}", newEmployee.getData());
+                toEmployee(newEmployee.getData()).ifPresent(employee -> {
+                    employeeIdCache.put(employee);
+                    sharedTier.share(String.valueOf(employee.getId()), Optional.of(employee));
+                });
                 return newEmployee;
             } else {
                 throw new GenericException(new ResponseData(newEmployee.getStatus(), newEmployee.getMessage(), null));
@@ -103,7 +427,7 @@ public class EmployeeService {
         }
     }
 
-    public String deleteEmployeeById(String id) throws GenericException {
+    private String deleteUpstream(String id) throws GenericException {
         ResponseData resp = employeeFeignClient.deleteEmployeeById(id);
         if (resp != null && resp.getStatus().equals(Constants.SUCCESS)) {
             return resp.getMessage();
@@ -111,4 +435,85 @@ public class EmployeeService {
             throw new GenericException(resp);
         }
     }
+
+    //an item never completes exceptionally, its failure is recorded in the result instead
+    private CompletableFuture<BatchItemResult> batchItem(int index, String id, long deadline, Callable<BatchItemResult> call) {
+        CompletableFuture<BatchItemResult> item = new CompletableFuture<>();
+        try {
+            batchExecutor.execute(() -> {
+                if (System.nanoTime() - deadline >= 0) {
+                    item.complete(new BatchItemResult(index, id, BatchItemResult.Status.NOT_ATTEMPTED, Constants.MSG_BATCH_DEADLINE));
+                    return;
+                }
+                try {
+                    item.complete(call.call());
+                } catch (Exception e) {
+                    log.debug("Batch item {} failed = {}", index, e.getMessage());
+                    item.complete(failedItem(index, id, e));
+                }
+            });
+        } catch (TaskRejectedException e) {
+            //the queue shared by all batches in flight is full, so this item was never sent
+            item.complete(new BatchItemResult(index, id, BatchItemResult.Status.NOT_ATTEMPTED, Constants.MSG_BATCH_QUEUE_FULL));
+        }
+        return item;
+    }
+
+    private static BatchItemResult failedItem(int index, String id, Exception e) {
+        if (e instanceof UpstreamRateLimitedException || (e instanceof FeignException && ((FeignException) e).status() == 429)) {
+            return new BatchItemResult(index, id, BatchItemResult.Status.RATE_LIMITED, Constants.MSG_429);
+        }
+        return new BatchItemResult(index, id, BatchItemResult.Status.FAILED, e.getMessage());
+    }
+
+    //completes once every item has, without holding a thread while they run
+    private static CompletableFuture<BatchResult> collect(List<CompletableFuture<BatchItemResult>> items) {
+        return CompletableFuture.allOf(items.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<BatchItemResult> results = new ArrayList<>(items.size());
+            int succeeded = 0;
+            int failed = 0;
+            int rateLimited = 0;
+            int notAttempted = 0;
+            for (CompletableFuture<BatchItemResult> item : items) {
+                BatchItemResult result = item.join();
+                results.add(result);
+                switch (result.getStatus()) {
+                    case SUCCESS:
+                        succeeded++;
+                        break;
+                    case RATE_LIMITED:
+                        rateLimited++;
+                        break;
+                    case NOT_ATTEMPTED:
+                        notAttempted++;
+                        break;
+                    default:
+                        failed++;
+                }
+            }
+            return new BatchResult(succeeded, failed, rateLimited, notAttempted, results);
+        });
+    }
+
+    private static Optional<Employee> toEmployee(EmployeeInput input) {
+        if (input == null) {
+            return Optional.empty();
+        }
+        OptionalInt id = parseInt(input.getId());
+        OptionalInt salary = parseInt(input.getSalary());
+        OptionalInt age = parseInt(input.getAge());
+        if (id.isEmpty() || salary.isEmpty() || age.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Employee.builder().id(id.getAsInt()).employee_name(input.getName())
+                .employee_salary(salary.getAsInt()).employee_age(age.getAsInt()).profile_image("").build());
+    }
+
+    private static OptionalInt parseInt(String value) {
+        try {
+            return value == null ? OptionalInt.empty() : OptionalInt.of(Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
 }
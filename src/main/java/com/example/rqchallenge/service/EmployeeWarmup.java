@@ -0,0 +1,169 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.cache.EmployeeIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.SearchTerm;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.config.AsyncConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prepares what the most frequent lookups in {@link EmployeeAccessLog} need, once the application is ready and after
+ * every snapshot refresh, so their latency does not depend on when a cache was last filled. A pass loads the snapshot
+ * if there is none yet, puts each hot id in the id cache unless its entry outlives the next pass, and precomputes the
+ * hot searches and the query index on the current dataset. Ids the snapshot can't answer cost an upstream call each,
+ * at most {@code upstream-budget} per pass and only on the replica that talks to the upstream; the rest are left to
+ * requests. A pass stops warming ids once it has run {@code max-pass-ms}.
+ */
+@Component
+@Slf4j
+public class EmployeeWarmup {
+
+    private final EmployeeService employeeService;
+    private final EmployeeAccessLog employeeAccessLog;
+    private final EmployeeSnapshot employeeSnapshot;
+    private final EmployeeIdCache employeeIdCache;
+    private final SharedTier sharedTier;
+    private final TaskExecutor warmupExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxIds;
+    private final int maxSearches;
+    private final int upstreamBudget;
+    private final long maxPassNanos;
+    private final long horizonMillis;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public EmployeeWarmup(EmployeeService employeeService, EmployeeAccessLog employeeAccessLog, EmployeeSnapshot employeeSnapshot,
+                          EmployeeIdCache employeeIdCache, SharedTier sharedTier,
+                          @Qualifier(AsyncConfig.WARMUP_EXECUTOR) TaskExecutor warmupExecutor, MeterRegistry meterRegistry,
+                          @Value("${employee.warmup.enabled:true}") boolean enabled,
+                          @Value("${employee.warmup.ids:200}") int maxIds,
+                          @Value("${employee.warmup.searches:50}") int maxSearches,
+                          @Value("${employee.warmup.upstream-budget:20}") int upstreamBudget,
+                          @Value("${employee.warmup.max-pass-ms:5000}") long maxPassMillis,
+                          @Value("${employee.snapshot.refresh-interval-ms:30000}") long refreshIntervalMillis) {
+        this.employeeService = employeeService;
+        this.employeeAccessLog = employeeAccessLog;
+        this.employeeSnapshot = employeeSnapshot;
+        this.employeeIdCache = employeeIdCache;
+        this.sharedTier = sharedTier;
+        this.warmupExecutor = warmupExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxIds = maxIds;
+        this.maxSearches = maxSearches;
+        this.upstreamBudget = upstreamBudget;
+        this.maxPassNanos = TimeUnit.MILLISECONDS.toNanos(maxPassMillis);
+        //passes follow refreshes, so an entry has to last until the next one plus the time a refresh may take
+        this.horizonMillis = refreshIntervalMillis * 3 / 2;
+    }
+
+    @PostConstruct
+    public void warmAfterRefresh() {
+        employeeSnapshot.addRefreshListener(dataset -> schedule());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmAfterStartup() {
+        schedule();
+    }
+
+    //refreshes run on readers' threads too, so the pass is handed to its own executor; one pending pass is enough
+    private void schedule() {
+        if (enabled && scheduled.compareAndSet(false, true)) {
+            warmupExecutor.execute(() -> {
+                scheduled.set(false);
+                try {
+                    warm();
+                } catch (RuntimeException e) {
+                    log.warn("Employee warm-up failed = {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs one pass now.
+     *
+     * @return the number of upstream calls made for ids
+     */
+    public int warm() {
+        //a request would have to load the snapshot anyway, so that is not charged to the budget
+        employeeSnapshot.get();
+        long deadline = System.nanoTime() + maxPassNanos;
+        Budget budget = new Budget(sharedTier.isLeader() ? upstreamBudget : 0);
+        int warmed = 0;
+        for (String id : employeeAccessLog.hottestIds(maxIds)) {
+            if (System.nanoTime() - deadline >= 0) {
+                //the rest of the ids are left to requests rather than holding the pass open
+                log.debug("Employee warm-up stopped after {} ids, pass ran out of time", warmed);
+                count("id", "timed_out", 1);
+                break;
+            }
+            if (!employeeIdCache.expiresWithin(id, horizonMillis)) {
+                continue;
+            }
+            try {
+                if (employeeService.warmEmployeeById(id, budget::take)) {
+                    warmed++;
+                }
+            } catch (RuntimeException e) {
+                //throttled or failing, so the upstream gets no more calls from this pass
+                log.debug("Warming employee {} failed = {}", id, e.getMessage());
+                budget.remaining = 0;
+                count("id", "failed", 1);
+            }
+        }
+        List<SearchTerm> searches = employeeAccessLog.hottestSearches(maxSearches);
+        employeeSnapshot.latest().ifPresent(dataset -> {
+            dataset.precomputeSearches(searches);
+            dataset.getQueryIndex();
+        });
+        count("id", "warmed", warmed);
+        count("id", "upstream", budget.spent);
+        count("search", "precomputed", searches.size());
+        log.debug("Employee warm-up: {} ids warmed, {} of them from the upstream, {} searches precomputed", warmed, budget.spent, searches.size());
+        return budget.spent;
+    }
+
+    private void count(String kind, String result, int amount) {
+        Counter.builder("employee.warmup")
+                .description("Lookups prepared ahead of requests by kind and where they were answered from")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment(amount);
+    }
+
+    private static class Budget {
+        private int remaining;
+        private int spent;
+
+        Budget(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean take() {
+            if (remaining <= 0) {
+                return false;
+            }
+            remaining--;
+            spent++;
+            return true;
+        }
+    }
+}
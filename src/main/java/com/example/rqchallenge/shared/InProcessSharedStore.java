@@ -0,0 +1,77 @@
+package com.example.rqchallenge.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link SharedStore} in this JVM's memory. It shares nothing between processes, so it stands in for a real store
+ * in tests, where several application instances can be given the same one.
+ */
+public class InProcessSharedStore implements SharedStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongSupplier millisClock;
+
+    public InProcessSharedStore() {
+        this(System::currentTimeMillis);
+    }
+
+    public InProcessSharedStore(LongSupplier millisClock) {
+        this.millisClock = millisClock;
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiredAt(millisClock.getAsLong())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value.clone());
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) {
+        entries.put(key, new Entry(value.clone(), expiry(ttlMillis)));
+    }
+
+    @Override
+    public void delete(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public boolean tryLease(String key, String owner, long ttlMillis) {
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        Entry lease = entries.compute(key, (k, current) -> current == null || current.expiredAt(millisClock.getAsLong())
+                || Arrays.equals(current.value, ownerBytes) ? new Entry(ownerBytes, expiry(ttlMillis)) : current);
+        return Arrays.equals(lease.value, ownerBytes);
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) {
+        byte[] ownerBytes = owner.getBytes(StandardCharsets.UTF_8);
+        entries.computeIfPresent(key, (k, current) -> Arrays.equals(current.value, ownerBytes) ? null : current);
+    }
+
+    private long expiry(long ttlMillis) {
+        return ttlMillis > 0 ? millisClock.getAsLong() + ttlMillis : Long.MAX_VALUE;
+    }
+
+    private static class Entry {
+        final byte[] value;
+        final long expiresAtMillis;
+
+        Entry(byte[] value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean expiredAt(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
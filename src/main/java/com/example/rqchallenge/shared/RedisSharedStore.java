@@ -0,0 +1,71 @@
+package com.example.rqchallenge.shared;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link SharedStore} on Redis. Lease checks and updates run as Lua scripts so that comparing the owner and changing
+ * the key happen in one step.
+ */
+public class RedisSharedStore implements SharedStore {
+
+    private static final RedisScript<Long> TRY_LEASE = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then return 1 end " +
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('pexpire', KEYS[1], ARGV[2]) return 1 end " +
+            "return 0", Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    private final RedisTemplate<String, byte[]> redis;
+
+    public RedisSharedStore(RedisConnectionFactory connectionFactory) {
+        redis = new RedisTemplate<>();
+        redis.setConnectionFactory(connectionFactory);
+        redis.setKeySerializer(RedisSerializer.string());
+        redis.setValueSerializer(RedisSerializer.byteArray());
+        redis.afterPropertiesSet();
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        return Optional.ofNullable(redis.opsForValue().get(key));
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) {
+        if (ttlMillis > 0) {
+            redis.opsForValue().set(key, value, Duration.ofMillis(ttlMillis));
+        } else {
+            redis.opsForValue().set(key, value);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        redis.delete(key);
+    }
+
+    @Override
+    public boolean tryLease(String key, String owner, long ttlMillis) {
+        Long held = redis.execute(TRY_LEASE, List.of(key), bytes(owner), bytes(String.valueOf(ttlMillis)));
+        return held != null && held == 1;
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) {
+        redis.execute(RELEASE_LEASE, List.of(key), bytes(owner));
+    }
+
+    //script arguments go through the value serializer, which takes bytes
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
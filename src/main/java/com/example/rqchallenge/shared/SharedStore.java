@@ -0,0 +1,29 @@
+package com.example.rqchallenge.shared;
+
+import java.util.Optional;
+
+/**
+ * Key-value store every replica can reach, with expiring entries and leases for leader election.
+ * Calls may fail with a runtime exception when the store is unreachable.
+ */
+public interface SharedStore {
+
+    Optional<byte[]> get(String key);
+
+    /**
+     * @param ttlMillis 0 keeps the entry until it is deleted
+     */
+    void put(String key, byte[] value, long ttlMillis);
+
+    void delete(String key);
+
+    /**
+     * Takes the lease if nobody holds it or extends it if the owner already does; false while someone else holds it.
+     */
+    boolean tryLease(String key, String owner, long ttlMillis);
+
+    /**
+     * Gives the lease up early, if the owner still holds it.
+     */
+    void releaseLease(String key, String owner);
+}
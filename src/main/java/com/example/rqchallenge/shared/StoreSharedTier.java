@@ -0,0 +1,223 @@
+package com.example.rqchallenge.shared;
+
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.cache.EmployeeSnapshotFile;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SharedTier} over a {@link SharedStore}. Leadership is a lease renewed well within its TTL; an instance stops
+ * calling itself leader once its own last renewal is a lease TTL old, whatever the store says, so two instances can
+ * only overlap by clock drift. The leader writes each dataset it loads under its own key and then points
+ * {@value #PUBLISHED_KEY} at it with the fetch time; a renewal that found nothing new only moves the pointer.
+ * The lease is renewed on a thread of its own and never waits for a publish, so a slow refresh or a large dataset write
+ * can't let it lapse while the leader is still working.
+ * <p>
+ * If the store can't be reached every instance acts as its own leader, which is the unshared behaviour, rather than
+ * all of them waiting on a leader nobody can elect.
+ */
+@Slf4j
+public class StoreSharedTier implements SharedTier {
+
+    static final String LEADER_KEY = "employee:leader";
+    static final String PUBLISHED_KEY = "employee:snapshot:published";
+    static final String DATASET_KEY_PREFIX = "employee:snapshot:";
+    static final String EMPLOYEE_KEY_PREFIX = "employee:id:";
+
+    private final SharedStore store;
+    private final ObjectMapper objectMapper;
+    private final String instanceId;
+    private final long leaseMillis;
+    private final long idTtlMillis;
+    private final long negativeIdTtlMillis;
+
+    private volatile long leaseValidUntilNanos;
+    private volatile boolean storeReachable = true;
+    //guards the lease state and its renewal thread apart from publishing
+    private final Object leaseLock = new Object();
+    private boolean leading;
+    private ScheduledExecutorService renewal;
+    //publication this instance last pointed the shared pointer at
+    private String lastPublication;
+
+    public StoreSharedTier(SharedStore store, ObjectMapper objectMapper, String instanceId, long leaseMillis,
+                           long idTtlMillis, long negativeIdTtlMillis, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.instanceId = instanceId;
+        this.leaseMillis = leaseMillis;
+        this.idTtlMillis = idTtlMillis;
+        this.negativeIdTtlMillis = negativeIdTtlMillis;
+        Gauge.builder("employee.shared.leader", this, tier -> tier.isLeader() ? 1 : 0)
+                .description("Whether this instance refreshes the shared employee snapshot from the upstream")
+                .tag("instance", instanceId)
+                .register(meterRegistry);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public boolean isLeader() {
+        return !storeReachable || System.nanoTime() - leaseValidUntilNanos < 0;
+    }
+
+    /**
+     * Renews the lease every {@code renewMillis} from now on, until {@link #resign()}.
+     */
+    public void startRenewal(long renewMillis) {
+        synchronized (leaseLock) {
+            if (renewal == null) {
+                renewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "employee-lease-" + instanceId);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                renewal.scheduleWithFixedDelay(this::renewLeadership, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void renewLeadership() {
+        synchronized (leaseLock) {
+            renew();
+        }
+    }
+
+    private void renew() {
+        long requestedAt = System.nanoTime();
+        boolean held;
+        try {
+            held = store.tryLease(LEADER_KEY, instanceId, leaseMillis);
+            if (!storeReachable) {
+                log.info("Shared store reachable again, instance {} resumes leader election", instanceId);
+            }
+            storeReachable = true;
+        } catch (RuntimeException e) {
+            if (storeReachable) {
+                log.warn("Shared store unreachable, instance {} refreshes from the upstream itself = {}", instanceId, e.getMessage());
+            }
+            storeReachable = false;
+            held = false;
+        }
+        //counted from before the request, so the local view of the lease never outlives the store's
+        leaseValidUntilNanos = held ? requestedAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis) : requestedAt;
+        if (held != leading) {
+            log.info("Instance {} {} leadership of the employee snapshot", instanceId, held ? "took" : "lost");
+            leading = held;
+        }
+    }
+
+    @PreDestroy
+    public void resign() {
+        synchronized (leaseLock) {
+            if (renewal != null) {
+                renewal.shutdownNow();
+            }
+        }
+        try {
+            store.releaseLease(LEADER_KEY, instanceId);
+        } catch (RuntimeException e) {
+            log.debug("Could not release leadership = {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<Published> published(long fetchedAfterMillis, String knownPublication) {
+        Optional<byte[]> pointer = store.get(PUBLISHED_KEY);
+        if (pointer.isEmpty()) {
+            return Optional.empty();
+        }
+        String[] fields = new String(pointer.get(), StandardCharsets.UTF_8).split(" ", 2);
+        long fetchedAtMillis = Long.parseLong(fields[0]);
+        String publication = fields[1];
+        if (fetchedAtMillis <= fetchedAfterMillis) {
+            return Optional.empty();
+        }
+        if (publication.equals(knownPublication)) {
+            return Optional.of(new Published(publication, fetchedAtMillis, null));
+        }
+        //the pointer may have moved on and the dataset been deleted since we read it; the next refresh sees the new one
+        Optional<byte[]> bytes = store.get(DATASET_KEY_PREFIX + publication);
+        if (bytes.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Published(publication, fetchedAtMillis,
+                    EmployeeSnapshotFile.fromBytes(bytes.get(), DATASET_KEY_PREFIX + publication).getColumns()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void publish(EmployeeDataset dataset) {
+        String publication = instanceId + "-" + dataset.getVersion();
+        try {
+            String previous = lastPublication != null ? lastPublication : currentPublication();
+            if (!publication.equals(previous)) {
+                store.put(DATASET_KEY_PREFIX + publication, EmployeeSnapshotFile.toBytes(dataset), 0);
+            }
+            store.put(PUBLISHED_KEY, (dataset.getFetchedAtMillis() + " " + publication).getBytes(StandardCharsets.UTF_8), 0);
+            lastPublication = publication;
+            if (previous != null && !previous.equals(publication)) {
+                store.delete(DATASET_KEY_PREFIX + previous);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not publish employee snapshot version {} = {}", dataset.getVersion(), e.getMessage());
+        }
+    }
+
+    private String currentPublication() {
+        return store.get(PUBLISHED_KEY).map(pointer -> new String(pointer, StandardCharsets.UTF_8).split(" ", 2)[1]).orElse(null);
+    }
+
+    //lookups are an optimisation, so a store failure falls back to the caller's own upstream call rather than failing it
+    @Override
+    public Optional<Optional<Employee>> lookup(String id) {
+        try {
+            Optional<byte[]> bytes = store.get(EMPLOYEE_KEY_PREFIX + id);
+            if (bytes.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(bytes.get().length == 0 ? Optional.empty() : Optional.of(objectMapper.readValue(bytes.get(), Employee.class)));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Shared lookup of employee {} failed = {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void share(String id, Optional<Employee> employee) {
+        try {
+            byte[] bytes = employee.isPresent() ? objectMapper.writeValueAsBytes(employee.get()) : new byte[0];
+            store.put(EMPLOYEE_KEY_PREFIX + id, bytes, employee.isPresent() ? idTtlMillis : negativeIdTtlMillis);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not share employee {} = {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void forget(String id) {
+        try {
+            store.delete(EMPLOYEE_KEY_PREFIX + id);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove shared employee {} = {}", id, e.getMessage());
+        }
+    }
+}
@@ -7,21 +7,34 @@ public interface Constants {
     String STATUS_405 = "405 Method Not Allowed";
     String STATUS_429 = "429 Too Many Requests";
     String STATUS_500 = "500 Internal Server Error";
+    String STATUS_503 = "503 Service Unavailable";
 
     String MSG_UNKNOWN = "Something went wrong at serverside";
     String MSG_404 = "Requested resource is not available";
     String MSG_405 = "Requested method is not available/supported by upstream system";
     String MSG_429 = "Upstream system is not able to handle multiple request concurrently..";
+    String MSG_503 = "Too many requests are in progress, please retry later";
+    String MSG_503_UPSTREAM = "Upstream system is unavailable, please retry later";
+    String MSG_BATCH_DEADLINE = "Not sent before the batch deadline, please retry";
+    String MSG_BATCH_QUEUE_FULL = "Not sent, too many batch items are waiting, please retry";
 
     String URL_HOST = "http://localhost:8080";
     String URL_BASE = "/employee-challenge-2024/api/v1";
     String URL_GET_ALL_EMPLOYEES = "/";
     String URL_GET_TOP_PAID_EMPLOYEES = "/topTenHighestEarningEmployeeNames";
     String URL_GET_HIGHEST_SALARY = "/highestSalary";
+    String URL_GET_TOP_EARNERS = "/topEarners?n=?";
+    String URL_GET_SALARY_STATS = "/salaryStats";
+    String URL_QUERY_EMPLOYEES = "/query?sort=?&order=?&minSalary=?&maxSalary=?&minAge=?&maxAge=?&offset=?&limit=?&cursor=?";
     String URL_GET_EMPLOYEE_BY_ID = "/?";
     String URL_GET_EMPLOYEE_BY_NAME = "/search/?";
     String URL_CREATE_EMPLOYEE = "/";
     String URL_DELETE_EMPLOYEE = "/?";
+    String URL_CREATE_EMPLOYEES_BATCH = "/batch";
+    String URL_DELETE_EMPLOYEES_BATCH = "/batch";
+
+    int MAX_BATCH_SIZE = 10000;
+    int MAX_HISTOGRAM_BUCKETS = 1000;
 
     String SUCCESS = "success";
     String FAIL = "fail";
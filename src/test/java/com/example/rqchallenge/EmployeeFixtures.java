@@ -0,0 +1,30 @@
+package com.example.rqchallenge;
+
+import com.example.rqchallenge.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Employees shared by the tests of how the dataset stores names and values.
+ */
+public final class EmployeeFixtures {
+
+    //non-ASCII letters that take two UTF-8 bytes and case fold, escaped so the sources stay ASCII
+    public static final String NON_ASCII_NAME = "Zo\u00eb \u00c6r\u00f8sk\u00f8bing";
+
+    private EmployeeFixtures() {
+    }
+
+    /**
+     * A plain row, a non-ASCII name, a null name and image, and an empty name with a negative salary.
+     */
+    public static List<Employee> edgeCases() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).profile_image("").build());
+        employees.add(Employee.builder().id(2).employee_name(NON_ASCII_NAME).employee_age(25).employee_salary(12000).profile_image("").build());
+        employees.add(Employee.builder().id(3).employee_name(null).employee_age(28).employee_salary(10000).build());
+        employees.add(Employee.builder().id(4).employee_name("").employee_age(45).employee_salary(-5).profile_image("https://img/4.png").build());
+        return employees;
+    }
+}
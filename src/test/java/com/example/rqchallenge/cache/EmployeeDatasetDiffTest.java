@@ -0,0 +1,55 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeDatasetDiffTest {
+
+    private final EmployeeDataset dataset = new EmployeeDataset(1, 0, List.of(
+            Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build(),
+            Employee.builder().id(2).employee_name("Arun").employee_salary(12000).build(),
+            Employee.builder().id(3).employee_name("Sonal").employee_salary(10000).build()));
+
+    @Test
+    public void testFindsAddedRemovedAndChangedIds() {
+        EmployeeDatasetDiff diff = EmployeeDatasetDiff.between(dataset, EmployeeColumns.of(List.of(
+                Employee.builder().id(4).employee_name("Ajay").build(),
+                Employee.builder().id(3).employee_name("Sonal K").employee_salary(10000).build(),
+                Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build())));
+        assertArrayEquals(diff.getAdded(), new int[]{4});
+        assertArrayEquals(diff.getRemoved(), new int[]{2});
+        assertArrayEquals(diff.getChanged(), new int[]{3});
+    }
+
+    @Test
+    public void testReorderedListIsRebuiltInUpstreamOrder() {
+        EmployeeColumns reordered = EmployeeColumns.of(List.of(
+                Employee.builder().id(3).employee_name("Sonal").employee_salary(10000).build(),
+                Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build(),
+                Employee.builder().id(2).employee_name("Arun").employee_salary(12000).build()));
+        EmployeeDatasetDiff diff = EmployeeDatasetDiff.between(dataset, reordered);
+        assertTrue(diff.isEmpty());
+        assertFalse(dataset.sameAs(reordered));
+        assertEquals(dataset.withUpstream(2, 0, reordered, diff).getEmployees(), reordered.liveView());
+    }
+
+    @Test
+    public void testRemovedAndAppendedRowsApplyIncrementally() {
+        EmployeeColumns fresh = EmployeeColumns.of(List.of(
+                Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build(),
+                Employee.builder().id(3).employee_name("Sonal").employee_salary(10000).build(),
+                Employee.builder().id(5).employee_name("Madhukar").employee_salary(100006).build()));
+        EmployeeDatasetDiff diff = EmployeeDatasetDiff.between(dataset, fresh);
+        EmployeeDataset updated = dataset.withUpstream(2, 0, fresh, diff);
+        assertEquals(updated.getEmployees(), fresh.liveView());
+        //appended to the existing columns instead of rebuilt from the fresh ones
+        assertEquals(updated.getColumns().size(), 4);
+        assertEquals(updated.getSalaryIndex().max().getAsInt(), 100006);
+        assertTrue(updated.findById(2).isEmpty());
+    }
+}
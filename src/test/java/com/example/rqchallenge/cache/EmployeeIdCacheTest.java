@@ -0,0 +1,82 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeIdCacheTest {
+
+    private final EmployeeIdCache employeeIdCache = new EmployeeIdCache(100, 60000, 5000, new SimpleMeterRegistry());
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    //a load that holds until the test releases it, like a slow upstream call
+    private Optional<Employee> slowLoad(String id) {
+        loads.incrementAndGet();
+        loading.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.of(Employee.builder().id(Integer.parseInt(id)).build());
+    }
+
+    @Test
+    public void testSlowLoadBlocksNeitherOtherIdsNorWrites() throws Exception {
+        Future<Optional<Employee>> slow = executor.submit(() -> employeeIdCache.get("1", this::slowLoad));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertEquals(employeeIdCache.get("2", id -> Optional.empty()), Optional.empty());
+        employeeIdCache.put(Employee.builder().id(3).build());
+        employeeIdCache.invalidate("3");
+        release.countDown();
+        assertEquals(slow.get(5, TimeUnit.SECONDS).get().getId(), 1);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        Future<Optional<Employee>> first = executor.submit(() -> employeeIdCache.get("1", this::slowLoad));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<Optional<Employee>> second = executor.submit(() -> employeeIdCache.get("1", this::slowLoad));
+        release.countDown();
+        assertEquals(second.get(5, TimeUnit.SECONDS), first.get(5, TimeUnit.SECONDS));
+        assertEquals(loads.get(), 1);
+    }
+
+    @Test
+    public void testInvalidatedDuringLoadIsNotCached() throws Exception {
+        Future<Optional<Employee>> slow = executor.submit(() -> employeeIdCache.get("1", this::slowLoad));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        employeeIdCache.invalidate("1");
+        release.countDown();
+        assertTrue(slow.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(employeeIdCache.get("1", id -> Optional.empty()), Optional.empty());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> employeeIdCache.get("1", id -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals(employeeIdCache.get("1", id -> Optional.of(Employee.builder().id(1).build())).get().getId(), 1);
+    }
+}
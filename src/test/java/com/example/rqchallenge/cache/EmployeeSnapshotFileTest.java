@@ -0,0 +1,45 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.EmployeeFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTripKeepsLiveEmployees() throws IOException {
+        EmployeeSnapshotFile file = new EmployeeSnapshotFile(dir.resolve("nested/employees.bin"));
+        EmployeeDataset dataset = new EmployeeDataset(1, 123456789L, EmployeeFixtures.edgeCases()).withRemoved(2, 2);
+        file.write(dataset);
+
+        EmployeeSnapshotFile.Stored stored = file.read().orElseThrow();
+        assertEquals(stored.getFetchedAtMillis(), 123456789L);
+        assertEquals(stored.getColumns().liveView(), dataset.getEmployees());
+        assertEquals(stored.getColumns().size(), 3);
+    }
+
+    @Test
+    public void testMissingFileReadsEmpty() throws IOException {
+        assertTrue(new EmployeeSnapshotFile(dir.resolve("absent.bin")).read().isEmpty());
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws IOException {
+        Path path = dir.resolve("employees.bin");
+        EmployeeSnapshotFile file = new EmployeeSnapshotFile(path);
+        file.write(new EmployeeDataset(1, 0, EmployeeFixtures.edgeCases()));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, file::read);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.feignclient.EmployeeListFetcher;
+import com.example.rqchallenge.index.EmployeeColumns;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import com.example.rqchallenge.shared.InProcessSharedStore;
+import com.example.rqchallenge.shared.StoreSharedTier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSnapshotTest {
+
+    private static final long TTL = 1000;
+    private static final long GRACE = 5000;
+
+    @Mock
+    public EmployeeFeignClient employeeFeignClient;
+    private MutableClock clock;
+    private EmployeeSnapshot employeeSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeList employeeList = new EmployeeList();
+        employeeList.setData(List.of(Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build()));
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList);
+        clock = new MutableClock();
+        employeeSnapshot = new EmployeeSnapshot(employeeFeignClient, TTL, GRACE, clock);
+    }
+
+    @Test
+    public void testReadsWithinTtlAreServedFromMemory() {
+        EmployeeDataset first = employeeSnapshot.get();
+        clock.advance(TTL);
+        EmployeeDataset second = employeeSnapshot.get();
+        assertSame(first, second);
+        Mockito.verify(employeeFeignClient, Mockito.times(1)).getAllEmployees();
+    }
+
+    @Test
+    public void testExpiredSnapshotIsRefreshed() {
+        EmployeeDataset first = employeeSnapshot.get();
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList(
+                Employee.builder().id(1).employee_name("Snehal").employee_age(33).employee_salary(25000).build()));
+        clock.advance(TTL + 1);
+        EmployeeDataset second = employeeSnapshot.get();
+        assertEquals(second.getVersion(), first.getVersion() + 1);
+        Mockito.verify(employeeFeignClient, Mockito.times(2)).getAllEmployees();
+    }
+
+    @Test
+    public void testStaleSnapshotServedWithinGraceWhenUpstreamFails() {
+        EmployeeDataset first = employeeSnapshot.get();
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenThrow(new IllegalStateException("429 Too Many Requests"));
+        clock.advance(TTL + GRACE);
+        assertSame(employeeSnapshot.get(), first);
+    }
+
+    @Test
+    public void testStaleReadDoesNotWaitForRefreshInFlight() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EmployeeSnapshot async = new EmployeeSnapshot(EmployeeListFetcher.unconditional(employeeFeignClient), SharedTier.STANDALONE,
+                TTL, GRACE, EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, executor::execute, clock);
+        EmployeeDataset first = async.get();
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return employeeList(Employee.builder().id(2).employee_name("Arun").build());
+        });
+        clock.advance(TTL + 1);
+        try {
+            //the first stale read starts the refresh, neither it nor the next one waits for it
+            assertSame(async.get(), first);
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+            assertSame(async.get(), first);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(async.get().getEmployees().get(0).getId(), 2);
+        Mockito.verify(employeeFeignClient, Mockito.times(2)).getAllEmployees();
+    }
+
+    @Test
+    public void testReadsPastGraceShareOneRefresh() throws Exception {
+        employeeSnapshot.get();
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenAnswer(invocation -> {
+            refreshing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return employeeList(Employee.builder().id(2).employee_name("Arun").build());
+        });
+        clock.advance(TTL + GRACE + 1);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<EmployeeDataset> firstReader = readers.submit(employeeSnapshot::get);
+            assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+            Future<EmployeeDataset> secondReader = readers.submit(employeeSnapshot::get);
+            //give the second reader time to join the refresh in flight
+            Thread.sleep(100);
+            release.countDown();
+            assertSame(secondReader.get(5, TimeUnit.SECONDS), firstReader.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            readers.shutdownNow();
+        }
+        Mockito.verify(employeeFeignClient, Mockito.times(2)).getAllEmployees();
+    }
+
+    @Test
+    public void testUpstreamFailurePropagatesAfterGrace() {
+        employeeSnapshot.get();
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenThrow(new IllegalStateException("429 Too Many Requests"));
+        clock.advance(TTL + GRACE + 1);
+        assertThrows(IllegalStateException.class, () -> employeeSnapshot.get());
+    }
+
+    @Test
+    public void testScheduledRefreshSwallowsUpstreamFailure() {
+        EmployeeDataset first = employeeSnapshot.get();
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenThrow(new IllegalStateException("429 Too Many Requests"));
+        employeeSnapshot.scheduledRefresh();
+        assertSame(employeeSnapshot.get(), first);
+    }
+
+    @Test
+    public void testRestoredSnapshotIsServedUntilRefreshed() {
+        assertTrue(employeeSnapshot.restore(EmployeeColumns.of(List.of(Employee.builder().id(7).employee_name("Restored").build()))));
+        assertEquals(employeeSnapshot.get().getEmployees().get(0).getId(), 7);
+        Mockito.verify(employeeFeignClient, Mockito.never()).getAllEmployees();
+
+        employeeSnapshot.scheduledRefresh();
+        assertEquals(employeeSnapshot.get().getEmployees().get(0).getId(), 1);
+        assertFalse(employeeSnapshot.restore(EmployeeColumns.of(List.of())));
+    }
+
+    @Test
+    public void testUnchangedListKeepsDatasetAndRenewsIt() {
+        EmployeeDataset first = employeeSnapshot.get();
+        clock.advance(TTL + 1);
+        EmployeeDataset second = employeeSnapshot.get();
+        assertEquals(second.getVersion(), first.getVersion());
+        assertSame(second.getSalaryIndex(), first.getSalaryIndex());
+        assertEquals(employeeSnapshot.ageOf(second), 0);
+    }
+
+    @Test
+    public void testAppendedEmployeesUpdateIndexesAndNotifyListeners() {
+        employeeSnapshot.get();
+        List<EmployeeDatasetDiff> diffs = new ArrayList<>();
+        employeeSnapshot.addChangeListener(diffs::add);
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList(
+                Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build(),
+                Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(30000).build()));
+        employeeSnapshot.scheduledRefresh();
+
+        EmployeeDataset dataset = employeeSnapshot.get();
+        assertEquals(dataset.getSalaryIndex().max().getAsInt(), 30000);
+        assertEquals(dataset.getNameIndex().search("aru", true, false).size(), 1);
+        assertEquals(diffs.size(), 1);
+        assertArrayEquals(diffs.get(0).getAdded(), new int[]{2});
+        assertEquals(diffs.get(0).getRemoved().length + diffs.get(0).getChanged().length, 0);
+    }
+
+    @Test
+    public void testFollowerAdoptsWhatTheLeaderFetched() {
+        InProcessSharedStore store = new InProcessSharedStore();
+        StoreSharedTier leaderTier = new StoreSharedTier(store, new ObjectMapper(), "leader", 15000, 60000, 5000, new SimpleMeterRegistry());
+        StoreSharedTier followerTier = new StoreSharedTier(store, new ObjectMapper(), "follower", 15000, 60000, 5000, new SimpleMeterRegistry());
+        leaderTier.renewLeadership();
+        followerTier.renewLeadership();
+        EmployeeSnapshot leader = new EmployeeSnapshot(EmployeeListFetcher.unconditional(employeeFeignClient), leaderTier, TTL, GRACE, EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, clock);
+        EmployeeSnapshot follower = new EmployeeSnapshot(EmployeeListFetcher.unconditional(employeeFeignClient), followerTier, TTL, GRACE, EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, clock);
+
+        leader.get();
+        assertEquals(follower.get().getEmployees().get(0).getEmployee_name(), "Snehal");
+
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList(
+                Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(30000).build()));
+        clock.advance(TTL + 1);
+        leader.scheduledRefresh();
+        follower.scheduledRefresh();
+        assertEquals(follower.get().getEmployees().get(0).getEmployee_name(), "Arun");
+        assertEquals(follower.ageOf(follower.get()), 0);
+        Mockito.verify(employeeFeignClient, Mockito.times(2)).getAllEmployees();
+    }
+
+    @Test
+    public void testLocalCreateOutlivesRefreshUntilUpstreamHasIt() {
+        employeeSnapshot.get();
+        Employee arun = Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(30000).build();
+        employeeSnapshot.applyCreated(arun);
+        EmployeeDataset created = employeeSnapshot.get();
+
+        //the upstream didn't keep the create, so the refreshed list is the one already held plus the local write
+        employeeSnapshot.scheduledRefresh();
+        assertEquals(employeeSnapshot.get().getVersion(), created.getVersion());
+        assertEquals(employeeSnapshot.get().findById(2), Optional.of(arun));
+
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList(
+                Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build(), arun));
+        employeeSnapshot.scheduledRefresh();
+        assertTrue(employeeSnapshot.localWrite(2).isEmpty());
+
+        //once confirmed, the upstream decides again
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList(
+                Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build()));
+        employeeSnapshot.scheduledRefresh();
+        assertTrue(employeeSnapshot.get().findById(2).isEmpty());
+    }
+
+    @Test
+    public void testLocalDeleteOutlivesRefreshUntilRetention() {
+        employeeSnapshot.get();
+        employeeSnapshot.applyDeleted(1);
+        assertEquals(employeeSnapshot.localWrite(1), Optional.of(Optional.empty()));
+
+        employeeSnapshot.scheduledRefresh();
+        assertTrue(employeeSnapshot.get().isEmpty());
+
+        clock.advance(EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS + 1);
+        employeeSnapshot.scheduledRefresh();
+        assertEquals(employeeSnapshot.get().size(), 1);
+        assertTrue(employeeSnapshot.localWrite(1).isEmpty());
+    }
+
+    @Test
+    public void testLocalWritesExpireWhenUpstreamReportsNoChange() {
+        //answers the list once, then unchanged, like a 304 or an identical body
+        AtomicInteger fetches = new AtomicInteger();
+        EmployeeListFetcher fetcher = () -> fetches.getAndIncrement() == 0 ? Optional.of(employeeFeignClient.getAllEmployees()) : Optional.empty();
+        EmployeeSnapshot conditional = new EmployeeSnapshot(fetcher, SharedTier.STANDALONE, TTL, GRACE, EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS, clock);
+        conditional.get();
+        conditional.applyDeleted(1);
+        conditional.applyCreated(Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(30000).build());
+
+        conditional.scheduledRefresh();
+        assertEquals(conditional.get().findById(2).map(Employee::getId), Optional.of(2));
+        assertTrue(conditional.get().findById(1).isEmpty());
+
+        clock.advance(EmployeeSnapshot.DEFAULT_LOCAL_WRITE_RETENTION_MILLIS + 1);
+        conditional.scheduledRefresh();
+        assertEquals(conditional.get().getEmployees(), employeeFeignClient.getAllEmployees().getData());
+        assertTrue(conditional.localWrite(1).isEmpty());
+        assertTrue(conditional.localWrite(2).isEmpty());
+    }
+
+    private static EmployeeList employeeList(Employee... employees) {
+        EmployeeList employeeList = new EmployeeList();
+        employeeList.setData(List.of(employees));
+        return employeeList;
+    }
+
+    static class MutableClock extends Clock {
+        private long millis = 1_000_000;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rqchallenge.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testHottestKeysFirst() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(1024, 10);
+        for (int i = 0; i < 30; i++) {
+            sketch.record("a");
+        }
+        for (int i = 0; i < 20; i++) {
+            sketch.record("b");
+        }
+        sketch.record("c");
+        assertEquals(sketch.hottest(2), List.of("a", "b"));
+        assertTrue(sketch.frequency("a") >= 30);
+        assertEquals(sketch.frequency("never"), 0);
+    }
+
+    @Test
+    public void testOneOffKeysDoNotDisplaceHotOnes() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(1 << 14, 8);
+        for (int round = 0; round < 50; round++) {
+            for (int hot = 0; hot < 4; hot++) {
+                sketch.record(hot);
+            }
+            for (int cold = 0; cold < 100; cold++) {
+                sketch.record(1000 + round * 100 + cold);
+            }
+        }
+        assertEquals(Set.copyOf(sketch.hottest(4)), Set.of(0, 1, 2, 3));
+        assertTrue(sketch.hottest(100).size() <= 8);
+    }
+
+    @Test
+    public void testPopularityFades() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(16, 4);
+        for (int i = 0; i < 100; i++) {
+            sketch.record("old");
+        }
+        //ten times the width in records halves every counter
+        for (int i = 0; i < 160; i++) {
+            sketch.record("new");
+        }
+        assertTrue(sketch.frequency("old") < 100);
+        assertEquals(sketch.hottest(1), List.of("new"));
+    }
+}
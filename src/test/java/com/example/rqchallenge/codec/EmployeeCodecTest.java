@@ -0,0 +1,56 @@
+package com.example.rqchallenge.codec;
+
+import com.example.rqchallenge.EmployeeFixtures;
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeCodecTest {
+
+    private final ObjectMapper dataBinding = new ObjectMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new EmployeeJsonModule(new EmployeeCodec()));
+
+    @Test
+    public void testWritesWhatDataBindingWrites() throws Exception {
+        List<Employee> employees = List.of(
+                Employee.builder().id(1).employee_name("Tiger Nixon").employee_salary(320800).employee_age(61).profile_image("").build(),
+                Employee.builder().id(-2).employee_name(EmployeeFixtures.NON_ASCII_NAME + " \"Q\" O'Brien\n\u2603").employee_salary(Integer.MAX_VALUE).build(),
+                new Employee());
+        assertEquals(objectMapper.writeValueAsString(employees), dataBinding.writeValueAsString(employees));
+        assertEquals(objectMapper.readValue(objectMapper.writeValueAsBytes(employees), new TypeReference<List<Employee>>() {}), employees);
+    }
+
+    @Test
+    public void testReadsNumbersSentAsStrings() throws Exception {
+        String json = "{\"extra\":{\"a\":[1,{\"b\":null}]},\"id\":\"7\",\"employee_name\":\"Garrett Winters\","
+                + "\"employee_salary\":\" 170750 \",\"employee_age\":63.9,\"profile_image\":null,\"tags\":[\"x\"]}";
+        assertEquals(objectMapper.readValue(json, Employee.class),
+                Employee.builder().id(7).employee_name("Garrett Winters").employee_salary(170750).employee_age(63).build());
+        assertEquals(objectMapper.readValue("{\"id\":\"-3\",\"employee_salary\":\"\",\"employee_age\":null}", Employee.class),
+                Employee.builder().id(-3).build());
+    }
+
+    @Test
+    public void testRejectsNumbersThatAreNotInts() {
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue("{\"employee_salary\":\"12.5\"}", Employee.class));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue("{\"employee_salary\":\"3000000000\"}", Employee.class));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue("{\"employee_age\":true}", Employee.class));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readValue("{\"employee_name\":[\"a\"]}", Employee.class));
+    }
+
+    @Test
+    public void testInternsRepeatedNames() throws Exception {
+        String json = "{\"id\":1,\"employee_name\":\"Ashton Cox\",\"profile_image\":\"\"}";
+        Employee first = objectMapper.readValue(json, Employee.class);
+        Employee second = objectMapper.readValue(json, Employee.class);
+        assertNotSame(second, first);
+        assertSame(second.getEmployee_name(), first.getEmployee_name());
+        assertSame(second.getProfile_image(), "");
+    }
+}
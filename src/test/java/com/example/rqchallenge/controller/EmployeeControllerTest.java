@@ -0,0 +1,141 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.config.AsyncConfig;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.service.EmployeeService;
+import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.AsyncListener;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EmployeeControllerTest {
+
+    private static final String EMPLOYEE_URL = Constants.URL_BASE + "/1";
+
+    private final EmployeeService employeeService = Mockito.mock(EmployeeService.class);
+    private ThreadPoolTaskExecutor employeeExecutor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        //one thread and no queue, so a second request in flight is rejected
+        employeeExecutor = (ThreadPoolTaskExecutor) new AsyncConfig().employeeExecutor(true, 1, 0);
+        employeeExecutor.initialize();
+        EmployeeController controller = new EmployeeController();
+        controller.employeeService = employeeService;
+        controller.employeeExecutor = employeeExecutor;
+        EmployeeControllerAdvice advice = new EmployeeControllerAdvice();
+        advice.meterRegistry = new SimpleMeterRegistry();
+        advice.errorResponses = new ErrorResponses(new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(advice).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeExecutor.shutdown();
+    }
+
+    @Test
+    public void testRequestRunsOnTheEmployeeExecutor() throws Exception {
+        AtomicReference<String> servedBy = new AtomicReference<>();
+        Mockito.when(employeeService.getEmployeeById("1")).thenAnswer(invocation -> {
+            servedBy.set(Thread.currentThread().getName());
+            return Employee.builder().id(1).employee_name("Snehal").build();
+        });
+        MvcResult result = mockMvc.perform(get(EMPLOYEE_URL)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employee_name").value("Snehal"));
+        assertTrue(servedBy.get().startsWith("employee-async-"), servedBy.get());
+    }
+
+    @Test
+    public void testFullExecutorAnswers503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        employeeExecutor.execute(() -> {
+            busy.countDown();
+            awaitQuietly(release);
+        });
+        try {
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            mockMvc.perform(get(EMPLOYEE_URL))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message").value(Constants.MSG_503));
+            Mockito.verifyNoInteractions(employeeService);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testSnapshotReadStaysOnTheCallingThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        employeeExecutor.execute(() -> {
+            busy.countDown();
+            awaitQuietly(release);
+        });
+        Mockito.when(employeeService.getTopEarners(1)).thenReturn(List.of(Employee.builder().id(1).employee_name("Snehal").build()));
+        try {
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            mockMvc.perform(get(Constants.URL_BASE + "/topEarners").param("n", "1"))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].employee_name").value("Snehal"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testTimedOutRequestAnswers503() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(employeeService.getEmployeeById("1")).thenAnswer(invocation -> {
+            awaitQuietly(release);
+            return Employee.builder().id(1).build();
+        });
+        try {
+            MvcResult result = mockMvc.perform(get(EMPLOYEE_URL)).andExpect(request().asyncStarted()).andReturn();
+            //what the container does once spring.mvc.async.request-timeout passes
+            MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+            for (AsyncListener listener : asyncContext.getListeners()) {
+                listener.onTimeout(null);
+            }
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message").value(Constants.MSG_503));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
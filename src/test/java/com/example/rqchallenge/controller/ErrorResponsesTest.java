@@ -0,0 +1,37 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.model.ResponseData;
+import com.example.rqchallenge.util.Constants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testFixedAnswersAreRenderedOnce() throws Exception {
+        ErrorResponses errorResponses = new ErrorResponses(objectMapper);
+        ResponseEntity<byte[]> notFound = errorResponses.notFound();
+        assertSame(errorResponses.notFound(), notFound);
+        assertEquals(notFound.getStatusCode(), HttpStatus.NOT_FOUND);
+        assertEquals(notFound.getHeaders().getContentType(), MediaType.APPLICATION_JSON);
+        assertEquals(objectMapper.readValue(notFound.getBody(), ResponseData.class),
+                new ResponseData(Constants.STATUS_404, Constants.MSG_404, null));
+    }
+
+    @Test
+    public void testUpstreamUnavailableSharesBodyAcrossRetryAfter() throws Exception {
+        ErrorResponses errorResponses = new ErrorResponses(objectMapper);
+        ResponseEntity<byte[]> withRetryAfter = errorResponses.upstreamUnavailable(1500);
+        assertEquals(withRetryAfter.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), "2");
+        assertSame(withRetryAfter.getBody(), errorResponses.upstreamUnavailable(0).getBody());
+        assertNull(errorResponses.upstreamUnavailable(0).getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
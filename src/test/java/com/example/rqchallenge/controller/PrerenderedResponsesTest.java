@@ -0,0 +1,123 @@
+package com.example.rqchallenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrerenderedResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PrerenderedResponses prerenderedResponses = new PrerenderedResponses(objectMapper, new SimpleMeterRegistry());
+    private final List<String> names = Collections.nCopies(200, "Tiger Nixon");
+
+    @Test
+    public void testRendersOncePerVersionAndAnswersNotModified() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        ResponseEntity<?> first = prerenderedResponses.respond("names", 1, new HttpHeaders(), () -> {
+            renders.incrementAndGet();
+            return names;
+        });
+        assertEquals(first.getStatusCode(), HttpStatus.OK);
+        assertArrayEquals((byte[]) first.getBody(), objectMapper.writeValueAsBytes(names));
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<?> second = prerenderedResponses.respond("names", 1, conditional, () -> {
+            renders.incrementAndGet();
+            return names;
+        });
+        assertEquals(second.getStatusCode(), HttpStatus.NOT_MODIFIED);
+        assertNull(second.getBody());
+        assertEquals(renders.get(), 1);
+
+        ResponseEntity<?> third = prerenderedResponses.respond("names", 2, conditional, () -> List.of("Garrett Winters"));
+        assertEquals(third.getStatusCode(), HttpStatus.OK);
+        assertNotEquals(third.getHeaders().getETag(), first.getHeaders().getETag());
+    }
+
+    @Test
+    public void testGzipOnlyWhenAccepted() throws Exception {
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+        ResponseEntity<?> compressed = prerenderedResponses.respond("names", 1, gzip, () -> names);
+        assertEquals(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), "gzip");
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream((byte[]) compressed.getBody())).readAllBytes();
+        assertArrayEquals(json, objectMapper.writeValueAsBytes(names));
+
+        HttpHeaders refused = new HttpHeaders();
+        refused.set(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        assertNull(prerenderedResponses.respond("names", 1, refused, () -> names).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testOnlyTheServedRepresentationsEtagMatches() throws Exception {
+        HttpHeaders gzip = new HttpHeaders();
+        gzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        String gzipEtag = prerenderedResponses.respond("names", 1, gzip, () -> names).getHeaders().getETag();
+
+        HttpHeaders identity = new HttpHeaders();
+        identity.setIfNoneMatch(gzipEtag);
+        assertEquals(prerenderedResponses.respond("names", 1, identity, () -> names).getStatusCode(), HttpStatus.OK);
+        gzip.setIfNoneMatch(gzipEtag);
+        assertEquals(prerenderedResponses.respond("names", 1, gzip, () -> names).getStatusCode(), HttpStatus.NOT_MODIFIED);
+
+        //too small to compress, so there is no gzip representation to match
+        ResponseEntity<?> small = prerenderedResponses.respond("small", 1, gzip, () -> List.of("Tiger Nixon"));
+        assertNull(small.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        HttpHeaders staleGzip = new HttpHeaders();
+        staleGzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        String digest = small.getHeaders().getETag().replace("\"", "");
+        staleGzip.setIfNoneMatch("\"" + digest + "-gzip\"");
+        assertEquals(prerenderedResponses.respond("small", 1, staleGzip, () -> List.of("Tiger Nixon")).getStatusCode(), HttpStatus.OK);
+    }
+
+    @Test
+    public void testWeakEtagMatches() throws Exception {
+        ResponseEntity<?> first = prerenderedResponses.respond("names", 1, new HttpHeaders(), () -> names);
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch("W/" + first.getHeaders().getETag());
+        assertEquals(prerenderedResponses.respond("names", 1, conditional, () -> names).getStatusCode(), HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneRender() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Object> slowRender = () -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return names;
+            };
+            Future<ResponseEntity<?>> first = executor.submit(() -> prerenderedResponses.respond("names", 1, new HttpHeaders(), slowRender));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> second = executor.submit(() -> prerenderedResponses.respond("names", 1, new HttpHeaders(), slowRender));
+            release.countDown();
+            assertArrayEquals((byte[]) second.get(5, TimeUnit.SECONDS).getBody(), (byte[]) first.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(renders.get(), 1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
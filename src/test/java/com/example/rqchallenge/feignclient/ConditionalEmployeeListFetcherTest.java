@@ -0,0 +1,62 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalEmployeeListFetcherTest {
+
+    private static final String BODY = "{\"status\":\"success\",\"data\":[{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800}]}";
+
+    private final EmployeeFeignClient employeeFeignClient = Mockito.mock(EmployeeFeignClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final ConditionalEmployeeListFetcher fetcher = new ConditionalEmployeeListFetcher(employeeFeignClient,
+            new EmployeeListReader(objectMapper, new EmployeeCodec(), meterRegistry), meterRegistry);
+
+    private static Response response(int status, Map<String, Collection<String>> headers, String body) {
+        Request request = Request.create(Request.HttpMethod.GET, "/employees", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        Response.Builder builder = Response.builder().status(status).request(request).headers(headers);
+        return body != null ? builder.body(body, StandardCharsets.UTF_8).build() : builder.build();
+    }
+
+    @Test
+    public void testEtagIsReplayedAndNotModifiedIsEmpty() {
+        Mockito.when(employeeFeignClient.getAllEmployeesResponse(null, null))
+                .thenReturn(response(200, Map.of("ETag", List.of("\"v1\"")), BODY));
+        Mockito.when(employeeFeignClient.getAllEmployeesResponse("\"v1\"", null))
+                .thenReturn(response(304, Map.of(), null));
+
+        Optional<EmployeeList> first = fetcher.fetchIfChanged();
+        assertEquals(first.orElseThrow().getData().get(0).getEmployee_name(), "Tiger Nixon");
+        assertTrue(fetcher.fetchIfChanged().isEmpty());
+        assertEquals(meterRegistry.get("employee.upstream.list.fetches").tag("result", "not_modified").counter().count(), 1.0);
+    }
+
+    @Test
+    public void testBodyHashDetectsChangesWithoutValidators() {
+        String changed = BODY.replace("320800", "320801");
+        Mockito.when(employeeFeignClient.getAllEmployeesResponse(null, null))
+                .thenReturn(response(200, Map.of(), BODY), response(200, Map.of(), BODY), response(200, Map.of(), changed));
+
+        assertTrue(fetcher.fetchIfChanged().isPresent());
+        assertTrue(fetcher.fetchIfChanged().isEmpty());
+        assertEquals(fetcher.fetchIfChanged().orElseThrow().getData().get(0).getEmployee_salary(), 320801);
+        assertEquals(meterRegistry.get("employee.upstream.list.fetches").tag("result", "unchanged").counter().count(), 1.0);
+    }
+}
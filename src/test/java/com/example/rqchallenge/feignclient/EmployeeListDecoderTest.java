@@ -0,0 +1,60 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.codec.EmployeeCodec;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeListDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final Decoder delegate = Mockito.mock(Decoder.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmployeeListDecoder decoder = new EmployeeListDecoder(delegate,
+            new EmployeeListReader(objectMapper, new EmployeeCodec(), meterRegistry));
+
+    private static Response response(String body) {
+        Request request = Request.create(Request.HttpMethod.GET, "/employees", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        return Response.builder().status(200).request(request).headers(Collections.emptyMap())
+                .body(body, StandardCharsets.UTF_8).build();
+    }
+
+    @Test
+    public void testDecodesUpstreamPayload() throws Exception {
+        String body = "{\"status\":\"success\",\"data\":["
+                + "{\"id\":\"1\",\"employee_name\":\"Tiger Nixon\",\"employee_salary\":\"320800\",\"employee_age\":\"61\",\"profile_image\":\"\"},"
+                + "{\"id\":2,\"employee_name\":\"Garrett Winters\",\"employee_salary\":170750,\"employee_age\":63,\"profile_image\":\"\",\"extra\":{\"a\":[1]}}"
+                + "],\"message\":\"Successfully! All records has been fetched.\"}";
+        EmployeeList employeeList = (EmployeeList) decoder.decode(response(body), EmployeeList.class);
+        assertEquals(employeeList.getData().size(), 2);
+        assertEquals(employeeList.getData().get(0), Employee.builder().id(1).employee_name("Tiger Nixon").employee_salary(320800).employee_age(61).profile_image("").build());
+        assertEquals(employeeList.getData().get(1).getEmployee_salary(), 170750);
+        assertEquals(meterRegistry.get("employee.upstream.payload").gauge().value(), body.getBytes(StandardCharsets.UTF_8).length);
+        Mockito.verifyNoInteractions(delegate);
+    }
+
+    @Test
+    public void testMissingDataIsEmpty() throws Exception {
+        EmployeeList employeeList = (EmployeeList) decoder.decode(response("{\"status\":\"success\",\"data\":null}"), EmployeeList.class);
+        assertTrue(employeeList.getData().isEmpty());
+    }
+
+    @Test
+    public void testOtherTypesGoToDelegate() throws Exception {
+        Response response = response("{}");
+        decoder.decode(response, Employee.class);
+        Mockito.verify(delegate).decode(response, Employee.class);
+    }
+}
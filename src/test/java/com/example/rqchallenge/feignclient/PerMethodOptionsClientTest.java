@@ -0,0 +1,45 @@
+package com.example.rqchallenge.feignclient;
+
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerMethodOptionsClientTest {
+
+    @Test
+    public void testConfiguredMethodGetsItsOwnTimeouts() {
+        UpstreamHttpProperties properties = new UpstreamHttpProperties();
+        UpstreamHttpProperties.MethodTimeouts timeouts = new UpstreamHttpProperties.MethodTimeouts();
+        timeouts.setReadTimeoutMs(30000L);
+        properties.getMethods().put("getAllEmployees", timeouts);
+
+        List<Request.Options> used = new ArrayList<>();
+        Client recording = (request, options) -> {
+            used.add(options);
+            throw new IOException("not connected");
+        };
+        EmployeeFeignClient client = Feign.builder()
+                .client(new PerMethodOptionsClient(recording, properties.optionsByMethod()))
+                .options(properties.defaultOptions())
+                .contract(new SpringMvcContract())
+                .retryer(Retryer.NEVER_RETRY)
+                .target(EmployeeFeignClient.class, "http://127.0.0.1");
+
+        assertThrows(RetryableException.class, client::getAllEmployees);
+        assertThrows(RetryableException.class, () -> client.getEmployeeById("1"));
+
+        assertEquals(used.get(0).readTimeoutMillis(), 30000);
+        assertEquals(used.get(0).connectTimeoutMillis(), 2000);
+        assertEquals(used.get(1).readTimeoutMillis(), 10000);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rqchallenge.feignclient;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    public void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("getAllEmployees", () -> {
+                    executions.incrementAndGet();
+                    awaitCollapsed(singleFlight, CALLERS - 1);
+                    return "employees";
+                })));
+            }
+            for (Future<String> result : results) {
+                assertEquals(result.get(5, TimeUnit.SECONDS), "employees");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(executions.get(), 1);
+        assertEquals(singleFlight.getCollapsed(), CALLERS - 1);
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotCached() {
+        SingleFlight singleFlight = new SingleFlight();
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("getEmployeeById:1", () -> {
+            throw new IllegalStateException("429 Too Many Requests");
+        }));
+        assertEquals(singleFlight.execute("getEmployeeById:1", () -> "retried"), "retried");
+    }
+
+    @Test
+    public void testDifferentKeysRunIndependently() {
+        SingleFlight singleFlight = new SingleFlight();
+        assertEquals(singleFlight.execute("getEmployeeById:1", () -> "1"), "1");
+        assertEquals(singleFlight.execute("getEmployeeById:2", () -> "2"), "2");
+        assertEquals(singleFlight.getCollapsed(), 0);
+    }
+
+    //keeps the leader in flight until every other caller has joined it
+    private static void awaitCollapsed(SingleFlight singleFlight, long expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCollapsed() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamCircuitBreakerTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/employees", Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private long nanos;
+    private UpstreamCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamIsolationProperties.Policy policy = new UpstreamIsolationProperties().getDefaults();
+        policy.setWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRatePercent(50);
+        policy.setSlowCallMs(100L);
+        policy.setOpenMs(1000L);
+        policy.setHalfOpenProbes(1);
+        circuitBreaker = new UpstreamCircuitBreaker("getAllEmployees", policy, () -> nanos);
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        succeed();
+        succeed();
+        fail(new FeignException.NotFound("404", REQUEST, null, null));
+        assertEquals(circuitBreaker.getState(), UpstreamCircuitBreaker.State.CLOSED);
+        fail(new FeignException.ServiceUnavailable("503", REQUEST, null, null));
+        fail(new FeignException.ServiceUnavailable("503", REQUEST, null, null));
+        assertEquals(circuitBreaker.getState(), UpstreamCircuitBreaker.State.OPEN);
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(400);
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class, this::succeed);
+        assertEquals(e.getRetryAfterMillis(), 601);
+    }
+
+    @Test
+    public void testSlowCallsCountAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> nanos += TimeUnit.MILLISECONDS.toNanos(150));
+        }
+        assertEquals(circuitBreaker.getState(), UpstreamCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void testHalfOpenProbeClosesOrReopens() {
+        for (int i = 0; i < 4; i++) {
+            fail(new FeignException.ServiceUnavailable("503", REQUEST, null, null));
+        }
+        nanos += TimeUnit.MILLISECONDS.toNanos(1000);
+        fail(new FeignException.ServiceUnavailable("503", REQUEST, null, null));
+        assertEquals(circuitBreaker.getState(), UpstreamCircuitBreaker.State.OPEN);
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(1000);
+        //a second caller is refused while the probe is still in flight
+        assertEquals(circuitBreaker.execute(() -> assertThrows(UpstreamUnavailableException.class, this::succeed)).getRetryAfterMillis(), 0);
+        assertEquals(circuitBreaker.getState(), UpstreamCircuitBreaker.State.CLOSED);
+    }
+
+    private void succeed() {
+        circuitBreaker.execute(() -> "ok");
+    }
+
+    private void fail(FeignException e) {
+        assertThrows(FeignException.class, () -> circuitBreaker.execute(() -> {
+            throw e;
+        }));
+    }
+}
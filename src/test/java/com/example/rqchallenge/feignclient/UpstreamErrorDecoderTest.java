@@ -0,0 +1,46 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamStatusException;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamErrorDecoderTest {
+
+    private static final String METHOD_KEY = "EmployeeFeignClient#getEmployeeById(String)";
+
+    private final UpstreamErrorDecoder decoder = new UpstreamErrorDecoder();
+    private final Request request = Request.create(Request.HttpMethod.GET, "/employee/1", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+
+    private Response response(int status, Map<String, Collection<String>> headers) {
+        return Response.builder().status(status).request(request).headers(headers).body("{\"status\":\"fail\"}", StandardCharsets.UTF_8).build();
+    }
+
+    @Test
+    public void testStatusesMapToTypedExceptions() {
+        assertTrue(decoder.decode(METHOD_KEY, response(404, Map.of())) instanceof FeignException.NotFound);
+        assertTrue(decoder.decode(METHOD_KEY, response(429, Map.of())) instanceof FeignException.TooManyRequests);
+        FeignException serverError = decoder.decode(METHOD_KEY, response(503, Map.of()));
+        assertTrue(serverError instanceof UpstreamStatusException);
+        assertEquals(serverError.status(), 503);
+    }
+
+    @Test
+    public void testExceptionsAreStacklessAndKeepHeaders() {
+        FeignException first = decoder.decode(METHOD_KEY, response(429, Map.of("Retry-After", List.of("2"))));
+        FeignException second = decoder.decode(METHOD_KEY, response(429, Map.of()));
+        assertEquals(first.getStackTrace().length, 0);
+        assertEquals(List.copyOf(first.responseHeaders().get("Retry-After")), List.of("2"));
+        assertSame(first.getMessage(), second.getMessage());
+        assertEquals(first.getMessage(), "[429] during [" + METHOD_KEY + "]");
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.rqchallenge.feignclient;
+
+import com.example.rqchallenge.exception.UpstreamRateLimitedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.FeignException;
+import feign.RequestLine;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamRateGovernorTest {
+
+    //the stub accepts at most one request per 20 ms, like a 50 requests/second upstream limit
+    private static final long MIN_GAP_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private HttpServer server;
+    private StubEmployeeApi api;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger createCalls = new AtomicInteger();
+    private long lastAcceptedNanos = System.nanoTime() - MIN_GAP_NANOS;
+
+    interface StubEmployeeApi {
+        @RequestLine("GET /employees")
+        String getAllEmployees();
+
+        @RequestLine("POST /create")
+        String createEmployee();
+    }
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/employees", this::rateLimited);
+        server.createContext("/create", exchange -> {
+            createCalls.incrementAndGet();
+            respond(exchange, 503, "");
+        });
+        server.start();
+        api = Feign.builder().retryer(Retryer.NEVER_RETRY)
+                .target(StubEmployeeApi.class, "http://127.0.0.1:" + server.getAddress().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testAdaptsToUpstreamRateLimit() {
+        UpstreamRateGovernor governor = new UpstreamRateGovernor(200, 1, 500, 1, 0.5, 5000, 10, 100, meterRegistry);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(governor.execute("getAllEmployees", true, api::getAllEmployees), "ok");
+        }
+        assertTrue(rejected.get() > 0);
+        assertEquals(meterRegistry.counter("employee.upstream.throttled").count(), rejected.get());
+        assertTrue(governor.getRate() < 200);
+    }
+
+    @Test
+    public void testNonIdempotentCallIsNotRetriedOn5xx() {
+        UpstreamRateGovernor governor = new UpstreamRateGovernor(200, 1, 500, 1, 0.5, 5000, 10, 100, meterRegistry);
+        FeignException exception = assertThrows(FeignException.class, () -> governor.execute("createEmployee", false, api::createEmployee));
+        assertEquals(exception.status(), 503);
+        assertEquals(createCalls.get(), 1);
+    }
+
+    @Test
+    public void testIdempotentCallRetriesUntilDeadline() {
+        UpstreamRateGovernor governor = new UpstreamRateGovernor(200, 1, 500, 1, 0.5, 300, 10, 50, meterRegistry);
+        assertThrows(FeignException.class, () -> governor.execute("createEmployee", true, api::createEmployee));
+        assertTrue(createCalls.get() > 1);
+    }
+
+    @Test
+    public void testRetryThatCannotBePacedBeforeDeadlineReportsTheRetriedFailure() {
+        AtomicLong now = new AtomicLong();
+        //one call per second, a one second deadline and no jitter
+        UpstreamRateGovernor governor = new UpstreamRateGovernor(1, 1, 1, 0, 0.5, 1000, 0, 0, meterRegistry, now::get);
+        FeignException exception = assertThrows(FeignException.class, () -> governor.execute("createEmployee", true, () -> {
+            //the backoff ends at 900 ms, just inside the deadline, but the next slot is only free at 1000 ms
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+            return api.createEmployee();
+        }));
+        assertEquals(exception.status(), 503);
+        assertEquals(createCalls.get(), 1);
+        assertEquals(meterRegistry.counter("employee.upstream.shed").count(), 1);
+    }
+
+    @Test
+    public void testShedsWhenNoCapacityBeforeDeadline() {
+        UpstreamRateGovernor governor = new UpstreamRateGovernor(1, 1, 1, 0, 0.5, 100, 10, 50, meterRegistry);
+        assertEquals(governor.execute("getEmployeeById", true, () -> "first"), "first");
+        assertThrows(UpstreamRateLimitedException.class, () -> governor.execute("getEmployeeById", true, () -> "second"));
+        assertEquals(meterRegistry.counter("employee.upstream.shed").count(), 1);
+    }
+
+    private void rateLimited(HttpExchange exchange) throws IOException {
+        boolean accepted;
+        synchronized (this) {
+            long now = System.nanoTime();
+            accepted = now - lastAcceptedNanos >= MIN_GAP_NANOS;
+            if (accepted) {
+                lastAcceptedNanos = now;
+            }
+        }
+        if (accepted) {
+            respond(exchange, 200, "ok");
+        } else {
+            rejected.incrementAndGet();
+            respond(exchange, 429, "");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
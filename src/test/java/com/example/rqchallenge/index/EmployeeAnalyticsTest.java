@@ -0,0 +1,102 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.AgeBand;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.HistogramBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeAnalyticsTest {
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build());
+        employees.add(Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(12000).build());
+        employees.add(Employee.builder().id(3).employee_name("Sonal").employee_age(45).employee_salary(10000).build());
+        employees.add(Employee.builder().id(4).employee_name("Narayan").employee_age(45).employee_salary(10000).build());
+        employees.add(Employee.builder().id(5).employee_name("Ajay Kumar").employee_age(38).employee_salary(200000).build());
+        return employees;
+    }
+
+    //enough rows that every query is split across the fork-join pool
+    private static List<Employee> manyEmployees() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        for (int id = 1; id <= 4 * EmployeeAnalytics.SEQUENTIAL_THRESHOLD; id++) {
+            employees.add(Employee.builder().id(id).employee_name("e" + id)
+                    .employee_age(18 + random.nextInt(50)).employee_salary(random.nextInt(500000)).build());
+        }
+        return employees;
+    }
+
+    @Test
+    public void testTopByAgeKeepsUpstreamOrderOnTies() {
+        List<Employee> top = EmployeeAnalytics.top(EmployeeColumns.of(employees()), EmployeeAnalytics.Field.AGE, 3);
+        assertEquals(top.stream().map(Employee::getId).collect(Collectors.toList()), List.of(3, 4, 5));
+    }
+
+    @Test
+    public void testTopMatchesStableSortWhenParallel() {
+        List<Employee> employees = manyEmployees();
+        EmployeeColumns columns = EmployeeColumns.of(employees).withRemoved(10);
+        employees.remove(9);
+        List<Employee> expected = employees.stream()
+                .sorted(Comparator.comparingInt(Employee::getEmployee_age).reversed())
+                .limit(100).collect(Collectors.toList());
+        assertEquals(EmployeeAnalytics.top(columns, EmployeeAnalytics.Field.AGE, 100), expected);
+        assertEquals(EmployeeAnalytics.top(columns, EmployeeAnalytics.Field.SALARY, 10), SalaryIndex.of(columns).top(10));
+    }
+
+    @Test
+    public void testTopClampsToSize() {
+        assertEquals(EmployeeAnalytics.top(EmployeeColumns.of(employees()), EmployeeAnalytics.Field.SALARY, 50).size(), 5);
+        assertTrue(EmployeeAnalytics.top(EmployeeColumns.of(List.of()), EmployeeAnalytics.Field.SALARY, 5).isEmpty());
+    }
+
+    @Test
+    public void testSalaryHistogram() {
+        List<HistogramBucket> histogram = EmployeeAnalytics.salaryHistogram(EmployeeColumns.of(employees()), 10000, 200000, 4);
+        assertEquals(histogram, List.of(
+                new HistogramBucket(10000, 57500, 4),
+                new HistogramBucket(57501, 105001, 0),
+                new HistogramBucket(105002, 152502, 0),
+                new HistogramBucket(152503, 200000, 1)));
+    }
+
+    @Test
+    public void testSalaryHistogramNarrowerThanBuckets() {
+        List<HistogramBucket> histogram = EmployeeAnalytics.salaryHistogram(EmployeeColumns.of(employees().subList(2, 4)), 10000, 10000, 10);
+        assertEquals(histogram, List.of(new HistogramBucket(10000, 10000, 2)));
+    }
+
+    @Test
+    public void testAgeBands() {
+        List<AgeBand> bands = EmployeeAnalytics.ageBands(EmployeeColumns.of(employees()), 10);
+        assertEquals(bands, List.of(
+                new AgeBand(20, 29, 1, 12000, 12000, 12000.0),
+                new AgeBand(30, 39, 2, 25000, 200000, 112500.0),
+                new AgeBand(40, 49, 2, 10000, 10000, 10000.0)));
+    }
+
+    @Test
+    public void testParallelReductionsCountEveryRow() {
+        List<Employee> employees = manyEmployees();
+        EmployeeColumns columns = EmployeeColumns.of(employees);
+        SalaryIndex salaryIndex = SalaryIndex.of(columns);
+        List<HistogramBucket> histogram = EmployeeAnalytics.salaryHistogram(columns, salaryIndex.min().getAsInt(), salaryIndex.max().getAsInt(), 7);
+        assertEquals(histogram.stream().mapToLong(HistogramBucket::getCount).sum(), (long) employees.size());
+
+        List<AgeBand> bands = EmployeeAnalytics.ageBands(columns, 5);
+        assertEquals(bands.stream().mapToInt(AgeBand::getCount).sum(), employees.size());
+        long under20 = employees.stream().filter(employee -> employee.getEmployee_age() < 20).count();
+        assertEquals(bands.get(0).getFromAge(), 15);
+        assertEquals((long) bands.get(0).getCount(), under20);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.EmployeeFixtures;
+import com.example.rqchallenge.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeColumnsTest {
+
+    @Test
+    public void testViewsRoundTrip() {
+        EmployeeColumns columns = EmployeeColumns.of(EmployeeFixtures.edgeCases());
+        assertEquals(columns.liveView(), EmployeeFixtures.edgeCases());
+        assertEquals(columns.employee(1).getEmployee_name(), EmployeeFixtures.NON_ASCII_NAME);
+        assertNull(columns.employee(2).getEmployee_name());
+        assertNull(columns.employee(2).getProfile_image());
+        assertEquals(columns.employee(3).getProfile_image(), "https://img/4.png");
+    }
+
+    @Test
+    public void testRemovedRowsKeepPositions() {
+        EmployeeColumns columns = EmployeeColumns.of(EmployeeFixtures.edgeCases()).withRemoved(2);
+        assertEquals(columns.size(), 4);
+        assertEquals(columns.liveCount(), 3);
+        assertTrue(columns.isRemoved(1));
+        assertEquals(columns.id(2), 3);
+        assertArrayEquals(columns.livePositions(), new int[]{0, 2, 3});
+        assertSame(columns.withRemoved(2), columns);
+    }
+
+    @Test
+    public void testAddedAndCompacted() {
+        Employee added = Employee.builder().id(5).employee_name("Radha").employee_age(65).employee_salary(10003).profile_image("").build();
+        EmployeeColumns columns = EmployeeColumns.of(EmployeeFixtures.edgeCases()).withRemoved(Set.of(1, 3)).withAdded(added).compacted();
+        List<Employee> expected = EmployeeFixtures.edgeCases();
+        expected.remove(2);
+        expected.remove(0);
+        expected.add(added);
+        assertEquals(columns.size(), 3);
+        assertEquals(columns.liveView(), expected);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeQueryIndexTest {
+
+    private static final EmployeeQueryIndex INDEX = EmployeeQueryIndex.of(employees());
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build());
+        employees.add(Employee.builder().id(2).employee_name("Arun").employee_age(25).employee_salary(12000).build());
+        employees.add(Employee.builder().id(3).employee_name("Sonal").employee_age(28).employee_salary(10000).build());
+        employees.add(Employee.builder().id(4).employee_name("Ajay").employee_age(45).employee_salary(10005).build());
+        employees.add(Employee.builder().id(5).employee_name("Madhukar").employee_age(35).employee_salary(100006).build());
+        employees.add(Employee.builder().id(6).employee_name("Narayan").employee_age(50).employee_salary(10000).build());
+        return employees;
+    }
+
+    private static List<Integer> ids(EmployeeQueryIndex.Page page) {
+        return page.getItems().stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSortBySalaryDescending() {
+        EmployeeQueryIndex.Page page = INDEX.query(EmployeeQueryIndex.SortKey.SALARY, true, IntRange.ALL, IntRange.ALL, 0, null, 3);
+        assertEquals(ids(page), List.of(5, 1, 2));
+        assertEquals(page.getNext(), new EmployeeQueryIndex.Keyset(EmployeeQueryIndex.SortKey.SALARY, 12000, null, 2));
+    }
+
+    @Test
+    public void testSalaryRangeOnSortKey() {
+        EmployeeQueryIndex.Page page = INDEX.query(EmployeeQueryIndex.SortKey.SALARY, false, new IntRange(10000, 12000), IntRange.ALL, 0, null, 10);
+        assertEquals(ids(page), List.of(3, 6, 4, 2));
+        assertNull(page.getNext());
+    }
+
+    @Test
+    public void testAgeFilterWhileSortingByName() {
+        EmployeeQueryIndex.Page page = INDEX.query(EmployeeQueryIndex.SortKey.NAME, false, IntRange.ALL, IntRange.of(30, null), 0, null, 10);
+        assertEquals(ids(page), List.of(4, 5, 6, 1));
+    }
+
+    @Test
+    public void testOffsetAndCursorPagingAgree() {
+        EmployeeQueryIndex.Page first = INDEX.query(EmployeeQueryIndex.SortKey.AGE, true, IntRange.ALL, IntRange.ALL, 0, null, 2);
+        EmployeeQueryIndex.Page byCursor = INDEX.query(EmployeeQueryIndex.SortKey.AGE, true, IntRange.ALL, IntRange.ALL, 0, first.getNext(), 2);
+        EmployeeQueryIndex.Page byOffset = INDEX.query(EmployeeQueryIndex.SortKey.AGE, true, IntRange.ALL, IntRange.ALL, 2, null, 2);
+        assertEquals(ids(first), List.of(6, 4));
+        assertEquals(ids(byCursor), List.of(5, 1));
+        assertEquals(ids(byOffset), ids(byCursor));
+    }
+
+    @Test
+    public void testTiesAreOrderedById() {
+        List<Employee> employees = new ArrayList<>(employees());
+        employees.add(0, Employee.builder().id(9).employee_name("Arun").employee_age(25).employee_salary(10000).build());
+        EmployeeQueryIndex index = EmployeeQueryIndex.of(employees);
+        assertEquals(ids(index.query(EmployeeQueryIndex.SortKey.SALARY, false, IntRange.ALL, IntRange.ALL, 0, null, 3)), List.of(3, 6, 9));
+        assertEquals(ids(index.query(EmployeeQueryIndex.SortKey.NAME, false, IntRange.ALL, IntRange.ALL, 0, null, 3)), List.of(4, 2, 9));
+    }
+
+    @Test
+    public void testUpdatedInPlaceLikeARebuild() {
+        EmployeeColumns columns = EmployeeColumns.of(employees());
+        EmployeeColumns added = columns.withAdded(Employee.builder().id(7).employee_name("Meera").employee_age(28).employee_salary(10000).build());
+        EmployeeColumns removed = added.withRemoved(4);
+        EmployeeQueryIndex updated = EmployeeQueryIndex.of(columns).withAdded(added).withRemoved(removed);
+        EmployeeQueryIndex rebuilt = EmployeeQueryIndex.of(removed);
+        for (EmployeeQueryIndex.SortKey sortKey : EmployeeQueryIndex.SortKey.values()) {
+            for (boolean descending : List.of(false, true)) {
+                assertEquals(ids(updated.query(sortKey, descending, IntRange.ALL, IntRange.ALL, 0, null, 10)),
+                        ids(rebuilt.query(sortKey, descending, IntRange.ALL, IntRange.ALL, 0, null, 10)), sortKey + " " + descending);
+            }
+        }
+    }
+
+    @Test
+    public void testCursorResumesAfterEmployeesChange() {
+        EmployeeColumns columns = EmployeeColumns.of(employees());
+        EmployeeQueryIndex.Page first = EmployeeQueryIndex.of(columns).query(EmployeeQueryIndex.SortKey.NAME, false, IntRange.ALL, IntRange.ALL, 0, null, 2);
+        assertEquals(ids(first), List.of(4, 2));
+        //the last employee of the page is gone and one that sorts before the cursor is new
+        EmployeeColumns changed = columns.withAdded(Employee.builder().id(7).employee_name("Aaron").build()).withRemoved(2);
+        EmployeeQueryIndex.Page second = EmployeeQueryIndex.of(changed).query(EmployeeQueryIndex.SortKey.NAME, false, IntRange.ALL, IntRange.ALL, 0, first.getNext(), 2);
+        assertEquals(ids(second), List.of(5, 6));
+    }
+}
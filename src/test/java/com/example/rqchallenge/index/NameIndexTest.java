@@ -0,0 +1,90 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.EmployeeFixtures;
+import com.example.rqchallenge.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameIndexTest {
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().id(1).employee_name("Snehal").build());
+        employees.add(Employee.builder().id(2).employee_name("Ajay").build());
+        employees.add(Employee.builder().id(3).employee_name("Sanjay").build());
+        employees.add(Employee.builder().id(4).employee_name("Ajay Kumar").build());
+        employees.add(Employee.builder().id(5).employee_name("Radha").build());
+        return employees;
+    }
+
+    private static List<Integer> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testContainsMatchesLinearScan() {
+        NameIndex nameIndex = NameIndex.of(employees());
+        for (String query : List.of("jay", "Ajay", "a", "Kumar", "xyz", "ay K", "ajay")) {
+            List<Employee> expected = employees().stream().filter(e -> e.getEmployee_name().contains(query)).collect(Collectors.toList());
+            assertEquals(nameIndex.search(query, false, false), expected, query);
+        }
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        NameIndex nameIndex = NameIndex.of(employees());
+        assertEquals(ids(nameIndex.search("AJAY", true, false)), List.of(2, 4));
+        assertTrue(nameIndex.search("AJAY", false, false).isEmpty());
+    }
+
+    @Test
+    public void testPrefix() {
+        NameIndex nameIndex = NameIndex.of(employees());
+        assertEquals(ids(nameIndex.search("Aj", false, true)), List.of(2, 4));
+        assertEquals(ids(nameIndex.search("s", true, true)), List.of(1, 3));
+        assertTrue(nameIndex.search("s", false, true).isEmpty());
+    }
+
+    @Test
+    public void testWithAddedAndRemoved() {
+        EmployeeColumns added = EmployeeColumns.of(employees()).withAdded(Employee.builder().id(6).employee_name("Vijay").build());
+        NameIndex nameIndex = NameIndex.of(employees())
+                .withAdded(added)
+                .withRemoved(added.withRemoved(2));
+        assertEquals(ids(nameIndex.search("jay", false, false)), List.of(3, 4, 6));
+        assertEquals(ids(nameIndex.search("vi", true, true)), List.of(6));
+    }
+
+    @Test
+    public void testPendingRowsAreMergedPastTheLimit() {
+        EmployeeColumns columns = EmployeeColumns.of(employees());
+        NameIndex nameIndex = NameIndex.of(columns);
+        for (int id = 6; id < 6 + NameIndex.MAX_PENDING + 10; id++) {
+            columns = columns.withAdded(Employee.builder().id(id).employee_name(id % 2 == 0 ? "Vijay " + id : "Meera " + id).build());
+            nameIndex = nameIndex.withAdded(columns);
+        }
+        List<Employee> all = columns.liveView();
+        for (String query : List.of("jay", "Meera 10", "ajay", "a")) {
+            List<Employee> expected = all.stream().filter(e -> e.getEmployee_name().contains(query)).collect(Collectors.toList());
+            assertEquals(nameIndex.search(query, false, false), expected, query);
+        }
+        List<Employee> prefixed = all.stream().filter(e -> e.getEmployee_name().startsWith("Vijay 10")).collect(Collectors.toList());
+        assertEquals(nameIndex.search("vijay 10", true, true), prefixed);
+    }
+
+    @Test
+    public void testNonAsciiNames() {
+        NameIndex nameIndex = NameIndex.of(List.of(
+                Employee.builder().id(1).employee_name(EmployeeFixtures.NON_ASCII_NAME).build(),
+                Employee.builder().id(2).employee_name("Zoe Aero").build()));
+        assertEquals(ids(nameIndex.search("\u00e6r\u00f8", true, false)), List.of(1));
+        assertEquals(ids(nameIndex.search("ZO\u00cb", true, true)), List.of(1));
+        assertEquals(ids(nameIndex.search("Zo", false, true)), List.of(1, 2));
+        assertTrue(nameIndex.search("\u00e6r\u00f8", false, false).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.SalaryStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalaryIndexTest {
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build());
+        employees.add(Employee.builder().id(2).employee_name("Arun").employee_salary(12000).build());
+        employees.add(Employee.builder().id(3).employee_name("Sonal").employee_salary(10000).build());
+        employees.add(Employee.builder().id(4).employee_name("Narayan").employee_salary(10000).build());
+        employees.add(Employee.builder().id(5).employee_name("Ajay Kumar").employee_salary(200000).build());
+        return employees;
+    }
+
+    @Test
+    public void testTopMatchesStableSort() {
+        List<Employee> employees = employees();
+        List<Employee> expected = employees.stream()
+                .sorted(Collections.reverseOrder(Comparator.comparingInt(Employee::getEmployee_salary)))
+                .limit(4).collect(Collectors.toList());
+        assertEquals(SalaryIndex.of(employees).top(4), expected);
+    }
+
+    @Test
+    public void testTopClampsToSize() {
+        assertEquals(SalaryIndex.of(employees()).top(50).size(), 5);
+        assertTrue(SalaryIndex.of(employees()).top(0).isEmpty());
+    }
+
+    @Test
+    public void testStats() {
+        SalaryStats stats = SalaryIndex.of(employees()).stats();
+        assertEquals(stats.getCount(), 5);
+        assertEquals(stats.getMin(), 10000);
+        assertEquals(stats.getMax(), 200000);
+        assertEquals(stats.getSum(), 257000);
+        assertEquals(stats.getMean(), 51400.0);
+    }
+
+    @Test
+    public void testPercentileIsNearestRank() {
+        SalaryIndex index = SalaryIndex.of(employees());
+        assertEquals(index.percentile(20).getAsInt(), 10000);
+        assertEquals(index.percentile(50).getAsInt(), 12000);
+        assertEquals(index.percentile(90).getAsInt(), 200000);
+        assertEquals(index.percentile(100).getAsInt(), 200000);
+        assertTrue(SalaryIndex.of(new ArrayList<>()).percentile(50).isEmpty());
+    }
+
+    @Test
+    public void testWithAddedMatchesRebuild() {
+        List<Employee> employees = employees();
+        Employee added = Employee.builder().id(6).employee_name("Radha").employee_salary(10000).build();
+        EmployeeColumns columns = EmployeeColumns.of(employees);
+        SalaryIndex incremental = SalaryIndex.of(columns).withAdded(columns.withAdded(added));
+        employees.add(added);
+        SalaryIndex rebuilt = SalaryIndex.of(employees);
+        assertEquals(incremental.top(10), rebuilt.top(10));
+        assertEquals(incremental.stats(), rebuilt.stats());
+    }
+
+    @Test
+    public void testWithRemovedMatchesRebuild() {
+        List<Employee> employees = employees();
+        EmployeeColumns columns = EmployeeColumns.of(employees);
+        SalaryIndex incremental = SalaryIndex.of(columns).withRemoved(columns.withRemoved(5));
+        employees.remove(4);
+        SalaryIndex rebuilt = SalaryIndex.of(employees);
+        assertEquals(incremental.top(10), rebuilt.top(10));
+        assertEquals(incremental.stats(), rebuilt.stats());
+        assertEquals(incremental.max().getAsInt(), 25000);
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        SalaryIndex empty = SalaryIndex.of(new ArrayList<>());
+        assertTrue(empty.max().isEmpty());
+        assertTrue(empty.min().isEmpty());
+        assertEquals(empty.stats().getCount(), 0);
+    }
+}
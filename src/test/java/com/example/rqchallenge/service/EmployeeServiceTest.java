@@ -1,10 +1,19 @@
 package com.example.rqchallenge.service;
 
+import com.example.rqchallenge.cache.EmployeeIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.SharedTier;
 import com.example.rqchallenge.exception.EmployeeNotFoundException;
 import com.example.rqchallenge.exception.GenericException;
+import com.example.rqchallenge.exception.InvalidCursorException;
+import com.example.rqchallenge.exception.UpstreamRateLimitedException;
+import com.example.rqchallenge.exception.UpstreamUnavailableException;
 import com.example.rqchallenge.model.*;
 import com.example.rqchallenge.feignclient.EmployeeFeignClient;
 import com.example.rqchallenge.util.Constants;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,12 +25,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -62,6 +78,11 @@ public class EmployeeServiceTest {
         Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList);
         Mockito.when(employeeFeignClient.getEmployeeById("1")).thenReturn(EmployeeServiceTest.employeeList.get(0));
         Mockito.when(employeeFeignClient.getEmployeeById("50")).thenReturn(null);
+        employeeService.employeeSnapshot = new EmployeeSnapshot(employeeFeignClient, 60000, 600000);
+        employeeService.employeeIdCache = new EmployeeIdCache(100, 60000, 5000, new SimpleMeterRegistry());
+        employeeService.sharedTier = SharedTier.STANDALONE;
+        employeeService.employeeAccessLog = new EmployeeAccessLog(true, 64, 16);
+        employeeService.batchExecutor = new SimpleAsyncTaskExecutor();
     }
 
     @Test
@@ -98,6 +119,15 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.contains(Constants.STATUS_404));
     }
 
+    @Test
+    public void testGetEmployeesByNameSearch_IgnoreCasePaged() throws EmployeeNotFoundException {
+        List<Employee> firstPage = employeeService.getEmployeesByNameSearch("s", true, false, 0, 2);
+        List<Employee> secondPage = employeeService.getEmployeesByNameSearch("s", true, false, 1, 2);
+        assertEquals(firstPage.size(), 2);
+        assertEquals(firstPage.get(0).getEmployee_name(), "Snehal");
+        assertEquals(secondPage.get(0).getEmployee_name(), "Prakash");
+    }
+
     @Test
     public void testGetEmployeeById() throws EmployeeNotFoundException {
         Employee employee = employeeService.getEmployeeById("1");
@@ -113,6 +143,68 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.contains(Constants.STATUS_404));
     }
 
+    @Test
+    public void testGetEmployeeById_Cached() throws EmployeeNotFoundException {
+        employeeService.getEmployeeById("1");
+        Employee employee = employeeService.getEmployeeById("1");
+        assertEquals(employee, employeeList.get(0));
+        Mockito.verify(employeeFeignClient, Mockito.times(1)).getEmployeeById("1");
+    }
+
+    @Test
+    public void testGetEmployeeById_NotFoundIsCached() {
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeeById("50"));
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeeById("50"));
+        Mockito.verify(employeeFeignClient, Mockito.times(1)).getEmployeeById("50");
+    }
+
+    @Test
+    public void testGetEmployeeById_FromSnapshot() throws EmployeeNotFoundException {
+        employeeService.getAllEmployees();
+        Employee employee = employeeService.getEmployeeById("5");
+        assertEquals(employee, employeeList.get(4));
+        Mockito.verify(employeeFeignClient, Mockito.never()).getEmployeeById("5");
+    }
+
+    @Test
+    public void testGetEmployeeById_StaleSnapshotWhenUpstreamUnavailable() throws EmployeeNotFoundException {
+        //a negative TTL makes the loaded snapshot stale straight away, but still within the grace window
+        employeeService.employeeSnapshot = new EmployeeSnapshot(employeeFeignClient, -1, 600000);
+        employeeService.fetchAllEmployees();
+        Mockito.when(employeeFeignClient.getEmployeeById(Mockito.anyString()))
+                .thenThrow(new UpstreamUnavailableException("Circuit for getEmployeeById is open", 1000));
+
+        assertEquals(employeeService.getEmployeeById("5"), employeeList.get(4));
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getEmployeeById("99"));
+    }
+
+    @Test
+    public void testGetEmployeeById_StaleSnapshotWhenUpstreamThrottlesOrFails() throws EmployeeNotFoundException {
+        employeeService.employeeSnapshot = new EmployeeSnapshot(employeeFeignClient, -1, 600000);
+        employeeService.fetchAllEmployees();
+        Request request = Request.create(Request.HttpMethod.GET, "/employee/6", Map.of(), null, StandardCharsets.UTF_8, null);
+        Mockito.when(employeeFeignClient.getEmployeeById("5")).thenThrow(new UpstreamRateLimitedException("getEmployeeById"));
+        Mockito.when(employeeFeignClient.getEmployeeById("6")).thenThrow(new FeignException.TooManyRequests("Too Many Requests", request, null, null));
+        Mockito.when(employeeFeignClient.getEmployeeById("7")).thenThrow(new FeignException.BadGateway("Bad Gateway", request, null, null));
+        Mockito.when(employeeFeignClient.getEmployeeById("8")).thenThrow(new FeignException.BadRequest("Bad Request", request, null, null));
+
+        assertEquals(employeeService.getEmployeeById("5"), employeeList.get(4));
+        assertEquals(employeeService.getEmployeeById("6"), employeeList.get(5));
+        assertEquals(employeeService.getEmployeeById("7"), employeeList.get(6));
+        //a client error is not the upstream being unable to answer
+        assertThrows(FeignException.BadRequest.class, () -> employeeService.getEmployeeById("8"));
+    }
+
+    @Test
+    public void testDeleteEmployee_InvalidatesIdCache() throws GenericException, EmployeeNotFoundException {
+        employeeService.getEmployeeById("1");
+        Mockito.when(employeeFeignClient.deleteEmployeeById("1")).thenReturn(new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "1"));
+        employeeService.deleteEmployeeById("1");
+        //the delete is read back from local state, not from an upstream that may not have kept it
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeeById("1"));
+        Mockito.verify(employeeFeignClient, Mockito.times(1)).getEmployeeById("1");
+    }
+
     @Test
     public void testGetHighestSalaryOfEmployees() throws EmployeeNotFoundException {
         Integer highestSalary = employeeService.getHighestSalaryOfEmployees();
@@ -158,6 +250,127 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.contains(Constants.STATUS_404));
     }
 
+    @Test
+    public void testGetTopEarners() throws EmployeeNotFoundException {
+        List<Employee> topEarners = employeeService.getTopEarners(3);
+        assertEquals(topEarners.size(), 3);
+        assertEquals(topEarners.get(0).getEmployee_name(), "Ajay Kumar");
+        assertEquals(topEarners.get(2).getEmployee_name(), "Snehal");
+    }
+
+    @Test
+    public void testGetSalaryStats() throws EmployeeNotFoundException {
+        SalaryStats salaryStats = employeeService.getSalaryStats();
+        assertEquals(salaryStats.getCount(), employeeList.size());
+        assertEquals(salaryStats.getMax(), 200000);
+        assertEquals(salaryStats.getMin(), 10000);
+    }
+
+    @Test
+    public void testGetTopEmployees_ByAge() throws EmployeeNotFoundException {
+        List<Employee> oldest = employeeService.getTopEmployees("age", 2);
+        assertEquals(oldest.stream().map(Employee::getEmployee_name).collect(Collectors.toList()), List.of("Radha", "Narayan"));
+    }
+
+    @Test
+    public void testGetSalaryPercentiles() throws EmployeeNotFoundException {
+        Map<String, Integer> percentiles = employeeService.getSalaryPercentiles(List.of(50.0, 99.9));
+        assertEquals(percentiles, Map.of("p50", 10004, "p99.9", 200000));
+        assertEquals(new ArrayList<>(percentiles.keySet()), List.of("p50", "p99.9"));
+    }
+
+    @Test
+    public void testGetSalaryStats_NotFound() {
+        EmployeeList employeeList = new EmployeeList();
+        employeeList.setData(new ArrayList<>());
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList);
+        Exception exception = assertThrows(EmployeeNotFoundException.class, () -> {
+            employeeService.getSalaryStats();
+        });
+        assertTrue(exception.getMessage().contains(Constants.STATUS_404));
+    }
+
+    @Test
+    public void testCreateEmployee_UpdatesSalaryIndex() throws GenericException, EmployeeNotFoundException {
+        employeeService.getHighestSalaryOfEmployees();
+        EmployeeInput newInput = EmployeeInput.builder().name("Shinde").salary("970000").age("45").build();
+        EmployeeResponse resp = new EmployeeResponse(EmployeeInput.builder().id("12").name("Shinde").salary("970000").age("45").build(),
+                Constants.SUCCESS, "Successfully! Record has been added.");
+        Mockito.when(employeeFeignClient.createEmployee(newInput)).thenReturn(resp);
+
+        employeeService.createEmployee(newInput);
+        assertEquals(employeeService.getHighestSalaryOfEmployees(), 970000);
+        assertEquals(employeeService.getTopTenHighestEarningEmployeeNames().get(0), "Shinde");
+        Mockito.verify(employeeFeignClient, Mockito.times(1)).getAllEmployees();
+    }
+
+    @Test
+    public void testDeleteEmployee_UpdatesSalaryIndex() throws GenericException, EmployeeNotFoundException {
+        employeeService.getHighestSalaryOfEmployees();
+        ResponseData expectedResp = new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "11");
+        Mockito.when(employeeFeignClient.deleteEmployeeById("11")).thenReturn(expectedResp);
+
+        employeeService.deleteEmployeeById("11");
+        assertEquals(employeeService.getHighestSalaryOfEmployees(), 100006);
+        assertEquals(employeeService.getSalaryStats().getCount(), employeeList.size() - 1);
+    }
+
+    @Test
+    public void testQueryEmployees_CursorPaging() throws Exception {
+        EmployeeQuery query = new EmployeeQuery();
+        query.setSort("salary");
+        query.setOrder("desc");
+        query.setMinSalary(10003);
+        query.setLimit(3);
+        EmployeePage firstPage = employeeService.queryEmployees(query);
+        assertEquals(firstPage.getItems().stream().map(Employee::getEmployee_name).collect(Collectors.toList()), List.of("Ajay Kumar", "Madhukar", "Snehal"));
+
+        query.setCursor(firstPage.getNextCursor());
+        EmployeePage secondPage = employeeService.queryEmployees(query);
+        assertEquals(secondPage.getItems().stream().map(Employee::getEmployee_name).collect(Collectors.toList()), List.of("Arun", "Ajay", "Sarika"));
+
+        query.setCursor(secondPage.getNextCursor());
+        EmployeePage lastPage = employeeService.queryEmployees(query);
+        assertEquals(lastPage.getItems().size(), 1);
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    public void testQueryEmployees_InvalidCursor() throws Exception {
+        EmployeeQuery query = new EmployeeQuery();
+        query.setCursor("999-0");
+        assertThrows(InvalidCursorException.class, () -> employeeService.queryEmployees(query));
+
+        query.setCursor(null);
+        query.setLimit(1);
+        query.setCursor(employeeService.queryEmployees(query).getNextCursor());
+        query.setSort("age");
+        assertThrows(InvalidCursorException.class, () -> employeeService.queryEmployees(query));
+    }
+
+    @Test
+    public void testQueryEmployees_CursorSurvivesWrites() throws Exception {
+        EmployeeQuery query = new EmployeeQuery();
+        query.setSort("salary");
+        query.setOrder("desc");
+        query.setLimit(3);
+        EmployeePage firstPage = employeeService.queryEmployees(query);
+        assertEquals(firstPage.getItems().stream().map(Employee::getEmployee_name).collect(Collectors.toList()), List.of("Ajay Kumar", "Madhukar", "Snehal"));
+
+        Mockito.when(employeeFeignClient.deleteEmployeeById("5")).thenReturn(new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "5"));
+        employeeService.deleteEmployeeById("5");
+        EmployeeInput newInput = EmployeeInput.builder().name("Shinde").salary("11000").age("45").build();
+        EmployeeResponse created = new EmployeeResponse();
+        created.setData(EmployeeInput.builder().id("12").name("Shinde").salary("11000").age("45").build());
+        created.setStatus(Constants.SUCCESS);
+        Mockito.when(employeeFeignClient.createEmployee(newInput)).thenReturn(created);
+        employeeService.createEmployee(newInput);
+
+        query.setCursor(firstPage.getNextCursor());
+        EmployeePage secondPage = employeeService.queryEmployees(query);
+        assertEquals(secondPage.getItems().stream().map(Employee::getEmployee_name).collect(Collectors.toList()), List.of("Arun", "Shinde", "Ajay"));
+    }
+
     @Test
     public void testCreateEmployee() throws GenericException {
         EmployeeInput newInput = EmployeeInput.builder().name("Shinde").salary("970000").age("45").build();
@@ -234,4 +447,76 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.contains("Null Response from Server"));
     }
 
+    @Test
+    public void testCreateEmployees_PartialFailure() throws EmployeeNotFoundException {
+        employeeService.getAllEmployees();
+        EmployeeInput created = EmployeeInput.builder().name("Shinde").salary("970000").age("45").build();
+        EmployeeInput rejected = EmployeeInput.builder().name("Patil").salary("50000").age("30").build();
+        EmployeeInput throttled = EmployeeInput.builder().name("Joshi").salary("60000").age("31").build();
+        Mockito.when(employeeFeignClient.createEmployee(created)).thenReturn(new EmployeeResponse(
+                EmployeeInput.builder().id("12").name("Shinde").salary("970000").age("45").build(), Constants.SUCCESS, "Successfully! Record has been added."));
+        Mockito.when(employeeFeignClient.createEmployee(rejected)).thenReturn(new EmployeeResponse(null, Constants.FAIL, Constants.MSG_UNKNOWN));
+        Mockito.when(employeeFeignClient.createEmployee(throttled)).thenThrow(new UpstreamRateLimitedException("createEmployee"));
+
+        BatchResult result = employeeService.createEmployees(List.of(created, rejected, throttled)).join();
+        assertEquals(result.getSucceeded(), 1);
+        assertEquals(result.getFailed(), 1);
+        assertEquals(result.getRateLimited(), 1);
+        assertEquals(result.getItems().get(0), new BatchItemResult(0, "12", BatchItemResult.Status.SUCCESS, "Successfully! Record has been added."));
+        assertEquals(result.getItems().get(1).getStatus(), BatchItemResult.Status.FAILED);
+        assertEquals(result.getItems().get(1).getMessage(), Constants.MSG_UNKNOWN);
+        assertEquals(result.getItems().get(2).getStatus(), BatchItemResult.Status.RATE_LIMITED);
+        assertEquals(employeeService.getHighestSalaryOfEmployees(), 970000);
+    }
+
+    @Test
+    public void testDeleteEmployeesById() throws EmployeeNotFoundException {
+        employeeService.getAllEmployees();
+        Mockito.when(employeeFeignClient.deleteEmployeeById("11")).thenReturn(new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "11"));
+        Mockito.when(employeeFeignClient.deleteEmployeeById("5")).thenReturn(new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "5"));
+        Mockito.when(employeeFeignClient.deleteEmployeeById("99")).thenReturn(null);
+
+        BatchResult result = employeeService.deleteEmployeesById(List.of("11", "99", "5")).join();
+        assertEquals(result.getSucceeded(), 2);
+        assertEquals(result.getFailed(), 1);
+        assertEquals(result.getItems().get(1), new BatchItemResult(1, "99", BatchItemResult.Status.FAILED, "Null Response from Server"));
+        assertEquals(employeeService.fetchAllEmployees().size(), employeeList.size() - 2);
+        assertEquals(employeeService.getHighestSalaryOfEmployees(), 25000);
+    }
+
+    @Test
+    public void testDeleteEmployeesById_DeadlinePassed() throws Exception {
+        employeeService.getAllEmployees();
+        //one item at a time, and the first one outlasts the deadline
+        ExecutorService oneAtATime = Executors.newSingleThreadExecutor();
+        employeeService.batchExecutor = oneAtATime::execute;
+        employeeService.batchDeadlineMillis = 50;
+        Mockito.when(employeeFeignClient.deleteEmployeeById("11")).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new ResponseData(Constants.SUCCESS, "Successfully! Record has been deleted", "11");
+        });
+        try {
+            BatchResult result = employeeService.deleteEmployeesById(List.of("11", "5", "6")).get(5, TimeUnit.SECONDS);
+            assertEquals(result.getSucceeded(), 1);
+            assertEquals(result.getNotAttempted(), 2);
+            assertEquals(result.getItems().get(1), new BatchItemResult(1, "5", BatchItemResult.Status.NOT_ATTEMPTED, Constants.MSG_BATCH_DEADLINE));
+            Mockito.verify(employeeFeignClient, Mockito.never()).deleteEmployeeById("5");
+            //the item that finished is applied although the rest of the batch was cut short
+            assertEquals(employeeService.fetchAllEmployees().size(), employeeList.size() - 1);
+        } finally {
+            oneAtATime.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCreateEmployees_QueueFull() {
+        employeeService.batchExecutor = task -> {
+            throw new TaskRejectedException("Batch queue is full");
+        };
+        EmployeeInput input = EmployeeInput.builder().name("Shinde").salary("970000").age("45").build();
+        BatchResult result = employeeService.createEmployees(List.of(input, input)).join();
+        assertEquals(result.getNotAttempted(), 2);
+        assertEquals(result.getItems().get(0).getMessage(), Constants.MSG_BATCH_QUEUE_FULL);
+        Mockito.verifyNoInteractions(employeeFeignClient);
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.cache.EmployeeIdCache;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.SearchTerm;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.feignclient.EmployeeFeignClient;
+import com.example.rqchallenge.model.Employee;
+import com.example.rqchallenge.model.EmployeeList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeWarmupTest {
+
+    private final EmployeeFeignClient employeeFeignClient = Mockito.mock(EmployeeFeignClient.class);
+    private final SharedTier sharedTier = Mockito.mock(SharedTier.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeList employeeList = new EmployeeList();
+        employeeList.setData(List.of(
+                Employee.builder().id(1).employee_name("Snehal").employee_age(32).employee_salary(25000).build(),
+                Employee.builder().id(2).employee_name("Ajay").employee_age(45).employee_salary(10005).build(),
+                Employee.builder().id(3).employee_name("Ajay Kumar").employee_age(45).employee_salary(200000).build()));
+        Mockito.when(employeeFeignClient.getAllEmployees()).thenReturn(employeeList);
+        Mockito.when(employeeFeignClient.getEmployeeById(Mockito.anyString()))
+                .thenAnswer(invocation -> Employee.builder().id(Integer.parseInt(invocation.getArgument(0))).build());
+        Mockito.when(sharedTier.isLeader()).thenReturn(true);
+        Mockito.when(sharedTier.lookup(Mockito.anyString())).thenReturn(Optional.empty());
+        employeeService = new EmployeeService();
+        employeeService.employeeFeignClient = employeeFeignClient;
+        employeeService.employeeSnapshot = new EmployeeSnapshot(employeeFeignClient, 60000, 600000);
+        employeeService.employeeIdCache = new EmployeeIdCache(100, 60000, 5000, meterRegistry);
+        employeeService.sharedTier = sharedTier;
+        employeeService.employeeAccessLog = new EmployeeAccessLog(true, 1024, 100);
+    }
+
+    private EmployeeWarmup warmup(int upstreamBudget) {
+        return warmup(upstreamBudget, 5000);
+    }
+
+    private EmployeeWarmup warmup(int upstreamBudget, long maxPassMillis) {
+        return new EmployeeWarmup(employeeService, employeeService.employeeAccessLog, employeeService.employeeSnapshot,
+                employeeService.employeeIdCache, sharedTier, new SyncTaskExecutor(), meterRegistry,
+                true, 10, 10, upstreamBudget, maxPassMillis, 30000);
+    }
+
+    private void request(String id, int times) {
+        for (int i = 0; i < times; i++) {
+            employeeService.employeeAccessLog.requested(id);
+        }
+    }
+
+    @Test
+    public void testHotIdsFromTheSnapshotCostNoBudget() throws Exception {
+        request("1", 5);
+        request("2", 3);
+        assertEquals(warmup(0).warm(), 0);
+        assertFalse(employeeService.employeeIdCache.expiresWithin("1", 45000));
+        assertFalse(employeeService.employeeIdCache.expiresWithin("2", 45000));
+        assertEquals(employeeService.getEmployeeById("1").getEmployee_name(), "Snehal");
+        Mockito.verify(employeeFeignClient, Mockito.never()).getEmployeeById(Mockito.anyString());
+    }
+
+    @Test
+    public void testUpstreamCallsStayWithinBudgetHottestFirst() throws Exception {
+        request("100", 9);
+        request("101", 8);
+        request("102", 7);
+        request("103", 6);
+        assertEquals(warmup(2).warm(), 2);
+        Mockito.verify(employeeFeignClient).getEmployeeById("100");
+        Mockito.verify(employeeFeignClient).getEmployeeById("101");
+        Mockito.verify(employeeFeignClient, Mockito.times(2)).getEmployeeById(Mockito.anyString());
+        assertEquals(meterRegistry.get("employee.warmup").tag("kind", "id").tag("result", "upstream").counter().count(), 2.0);
+
+        //warm entries outlive the next pass, so it spends its budget on the rest
+        assertEquals(warmup(2).warm(), 2);
+        Mockito.verify(employeeFeignClient).getEmployeeById("103");
+        assertEquals(employeeService.getEmployeeById("102").getId(), 102);
+        Mockito.verify(employeeFeignClient, Mockito.times(4)).getEmployeeById(Mockito.anyString());
+    }
+
+    @Test
+    public void testPassStopsOnceOutOfTime() {
+        request("100", 3);
+        assertEquals(warmup(20, 0).warm(), 0);
+        Mockito.verify(employeeFeignClient, Mockito.never()).getEmployeeById(Mockito.anyString());
+        assertEquals(meterRegistry.get("employee.warmup").tag("kind", "id").tag("result", "timed_out").counter().count(), 1.0);
+    }
+
+    @Test
+    public void testFollowersDoNotSpendUpstreamCalls() {
+        Mockito.when(sharedTier.isLeader()).thenReturn(false);
+        request("100", 3);
+        assertEquals(warmup(20).warm(), 0);
+        Mockito.verify(employeeFeignClient, Mockito.never()).getEmployeeById(Mockito.anyString());
+        assertTrue(employeeService.employeeIdCache.expiresWithin("100", 1));
+    }
+
+    @Test
+    public void testHotSearchesArePrecomputed() throws Exception {
+        SearchTerm term = new SearchTerm("ajay", true, false);
+        employeeService.employeeAccessLog.searched(term);
+        warmup(0).warm();
+        EmployeeDataset dataset = employeeService.employeeSnapshot.get();
+        assertSame(dataset.search(term), dataset.search(term));
+        assertEquals(employeeService.getEmployeesByNameSearch("ajay", true, false, 0, null).size(), 2);
+    }
+}
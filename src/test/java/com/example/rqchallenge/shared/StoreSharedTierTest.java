@@ -0,0 +1,122 @@
+package com.example.rqchallenge.shared;
+
+import com.example.rqchallenge.cache.EmployeeDataset;
+import com.example.rqchallenge.cache.SharedTier;
+import com.example.rqchallenge.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreSharedTierTest {
+
+    private InProcessSharedStore store;
+    private StoreSharedTier first;
+    private StoreSharedTier second;
+
+    @BeforeEach
+    void setUp() {
+        store = new InProcessSharedStore();
+        first = tier("first");
+        second = tier("second");
+        first.renewLeadership();
+        second.renewLeadership();
+    }
+
+    @Test
+    public void testOneLeaderUntilItResigns() {
+        assertTrue(first.isLeader());
+        assertFalse(second.isLeader());
+
+        first.resign();
+        second.renewLeadership();
+        first.renewLeadership();
+        assertTrue(second.isLeader());
+        assertFalse(first.isLeader());
+    }
+
+    @Test
+    public void testFollowerSeesPublishedDatasetThenOnlyRenewals() {
+        assertEquals(second.published(Long.MIN_VALUE, null), Optional.empty());
+        first.publish(new EmployeeDataset(3, 1000, List.of(Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build())));
+
+        SharedTier.Published published = second.published(Long.MIN_VALUE, null).orElseThrow();
+        assertEquals(published.getPublication(), "first-3");
+        assertEquals(published.getFetchedAtMillis(), 1000);
+        assertEquals(published.getColumns().employee(0).getEmployee_name(), "Snehal");
+        assertEquals(second.published(1000, "first-3"), Optional.empty());
+
+        first.publish(new EmployeeDataset(3, 2000, List.of(Employee.builder().id(1).employee_name("Snehal").employee_salary(25000).build())));
+        SharedTier.Published renewed = second.published(1000, "first-3").orElseThrow();
+        assertEquals(renewed.getFetchedAtMillis(), 2000);
+        assertNull(renewed.getColumns());
+    }
+
+    @Test
+    public void testNewPublicationReplacesTheOldOne() {
+        first.publish(new EmployeeDataset(3, 1000, List.of()));
+        first.publish(new EmployeeDataset(4, 2000, List.of()));
+        assertTrue(store.get(StoreSharedTier.DATASET_KEY_PREFIX + "first-4").isPresent());
+        assertFalse(store.get(StoreSharedTier.DATASET_KEY_PREFIX + "first-3").isPresent());
+    }
+
+    @Test
+    public void testLookupsAreSharedAndForgotten() {
+        Employee employee = Employee.builder().id(7).employee_name("Arun").employee_salary(12000).employee_age(25).build();
+        first.share("7", Optional.of(employee));
+        first.share("8", Optional.empty());
+        assertEquals(second.lookup("7"), Optional.of(Optional.of(employee)));
+        assertEquals(second.lookup("8"), Optional.of(Optional.empty()));
+
+        second.forget("7");
+        assertEquals(first.lookup("7"), Optional.empty());
+    }
+
+    @Test
+    public void testRenewalDoesNotWaitForAPublish() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        //a dataset write that holds until the test releases it, like a multi-MB put
+        store = new InProcessSharedStore() {
+            @Override
+            public void put(String key, byte[] value, long ttlMillis) {
+                if (key.startsWith(StoreSharedTier.DATASET_KEY_PREFIX)) {
+                    writing.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.put(key, value, ttlMillis);
+            }
+        };
+        StoreSharedTier leader = tier("leader");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> publishing = executor.submit(() -> leader.publish(new EmployeeDataset(3, 1000, List.of())));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            executor.submit(leader::renewLeadership).get(1, TimeUnit.SECONDS);
+            assertTrue(leader.isLeader());
+            release.countDown();
+            publishing.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private StoreSharedTier tier(String instanceId) {
+        return new StoreSharedTier(store, new ObjectMapper(), instanceId, 15000, 60000, 5000, new SimpleMeterRegistry());
+    }
+}